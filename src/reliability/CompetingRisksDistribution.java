@@ -0,0 +1,333 @@
+package reliability;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Competing risks distribution class
+ *
+ * Series system of independent Weibull failure modes: a unit fails at the
+ * first failure of any of its modes, so that its reliability is the product
+ * of the modes reliabilities and its hazard is the sum of the modes hazards.
+ *
+ */
+public class CompetingRisksDistribution extends ReliabilityDistribution {
+
+    private static final long serialVersionUID = 6410985137235617741L;
+
+    private static int DEFAULT_MAX_ITERATIONS = 1000;
+    private static double DEFAULT_MIN_TOL = 1e-8;
+
+    private final WeibullDistribution[] components;
+
+    /**
+     * @brief Competing risks distribution class constructor
+     *
+     * Competing risks distribution class constructor
+     *
+     * @param components failure modes
+     *
+     * @exception IllegalArgumentException components vector must have size
+     * greater than 0
+     * @exception IllegalArgumentException components can not be null
+     *
+     */
+    public CompetingRisksDistribution(WeibullDistribution[] components)
+            throws IllegalArgumentException {
+
+        if (components == null || components.length <= 0) {
+            throw new IllegalArgumentException(
+                    "Components vector must be of size greater 0!");
+        }
+
+        for (WeibullDistribution component : components) {
+            if (component == null) {
+                throw new IllegalArgumentException(
+                        "Components can not be null!");
+            }
+        }
+
+        this.components = components.clone();
+
+    }
+
+    /**
+     * @brief Get failure modes
+     *
+     * @return a copy of the components vector
+     *
+     */
+    public WeibullDistribution[] getComponents() {
+
+        return components.clone();
+
+    }
+
+    @Override
+    public double pdf(double x) {
+
+        return hazard(x) * reliability(x);
+
+    }
+
+    @Override
+    public double cdf(double x) {
+
+        return 1.0 - reliability(x);
+
+    }
+
+    @Override
+    public double reliability(double x) {
+
+        double val = 1.0;
+        for (WeibullDistribution component : components) {
+            val *= component.reliability(x);
+        }
+
+        return val;
+
+    }
+
+    @Override
+    public double hazard(double x) {
+
+        double val = 0.0;
+        for (WeibullDistribution component : components) {
+            val += component.hazard(x);
+        }
+
+        return val;
+
+    }
+
+    @Override
+    public double random() {
+
+        double val = Double.POSITIVE_INFINITY;
+        for (WeibullDistribution component : components) {
+            val = Math.min(val, component.random());
+        }
+
+        return val;
+
+    }
+
+    @Override
+    public double random(Random generator) {
+
+        double val = Double.POSITIVE_INFINITY;
+        for (WeibullDistribution component : components) {
+            val = Math.min(val, component.random(generator));
+        }
+
+        return val;
+
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder("Competing Risks Distribution {");
+        for (WeibullDistribution component : components) {
+            sb.append("\n\tshape = ").append(component.getShape())
+                    .append(", scale = ").append(component.getScale());
+        }
+
+        return sb.append("\n}").toString();
+
+    }
+
+    /**
+     * @brief Estimate parameters
+     *
+     * Estimate shapes and scales of the failure modes given samples data
+     * whose failure mode is unknown, by the EM algorithm. The E-step
+     * attributes each failure to the modes in proportion to their hazards,
+     * the M-step fits each mode on the sufficient sums of
+     * WeibullDistribution.estimate with the failures weighted by their
+     * attribution and every sample exposed to every mode. Both steps run in
+     * parallel over blocks of samples. The modes are started with shapes
+     * spread from 0.7 to 3.0 (infant mortality to wear-out).
+     *
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     * @param count number of failure modes
+     * @param maxIterations maximum number of EM iterations allowed
+     * @param minTol minimum relative tolerance on the log-likelihood
+     *
+     * @return return a new competing risks distribution with estimated
+     * parameters, modes sorted by scale
+     *
+     * @exception IllegalArgumentException data vector vector can not be null
+     * @exception IllegalArgumentException data vector must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException type vector must be of the same
+     * length than the data vector
+     * @exception IllegalArgumentException data must be greater than 0.0
+     * @exception IllegalArgumentException number of components must be
+     * greater than 0
+     * @exception IllegalArgumentException maximum number of iterations must be
+     * greater than 0
+     * @exception IllegalArgumentException tolerance must be greater than 0.0
+     * @exception ArithmeticException number of distinct uncensored data must
+     * be greater than the number of components
+     * @exception ArithmeticException EM algorithm did not converge
+     * @exception ArithmeticException failure mode estimation error
+     *
+     */
+    public static CompetingRisksDistribution estimate(double[] data, boolean[] censored,
+            int count, int maxIterations, double minTol)
+            throws ArithmeticException, IllegalArgumentException {
+
+        WeibullEM.validate(data, censored, count, maxIterations, minTol);
+
+        int n = data.length;
+        long start = startTimer();
+
+        WeibullEM.failures(data, censored, count, start);
+
+        // failures evenly attributed, shapes spread, matching scales
+        double[][] resp = new double[count][n];
+        double[] shapes = new double[count];
+        double[] scales = new double[count];
+        for (int j = 0; j < count; j++) {
+            Arrays.fill(resp[j], 1.0 / count);
+            shapes[j] = count == 1 ? 1.0 : 0.7 * Math.pow(3.0 / 0.7, (double) j / (count - 1));
+            scales[j] = WeibullDistribution.scale(WeibullDistribution.sufficientSums(
+                    data, censored, resp[j], null, shapes[j]), shapes[j]);
+        }
+
+        double ll = Double.NEGATIVE_INFINITY;
+        boolean conv = false; // convergence check
+        int iterations = 0;
+
+        while (iterations < maxIterations && conv == false) {
+
+            iterations++;
+
+            // E-step
+            double llOld = ll;
+            ll = eStep(data, censored, shapes, scales, resp);
+
+            if (!Double.isFinite(ll)) {
+                fitFailed(n, iterations, "Failure mode estimation error!", start);
+                throw new ArithmeticException(
+                        "Failure mode estimation error!");
+            }
+
+            // M-step
+            for (int j = 0; j < count; j++) {
+                double events = WeibullEM.mStep(data, censored, resp[j], null,
+                        shapes, scales, j, minTol);
+                if (!(events > 0.0) || !(scales[j] > 0.0) || !Double.isFinite(scales[j])) {
+                    fitFailed(n, iterations, "Failure mode estimation error!", start);
+                    throw new ArithmeticException(
+                            "Failure mode estimation error!");
+                }
+            }
+
+            if (Math.abs(ll - llOld) <= minTol * Math.abs(ll)) {
+                conv = true;
+            }
+
+        }
+
+        if (conv == false) {
+            fitFailed(n, iterations, "EM algorithm did not converge!", start);
+            throw new ArithmeticException(
+                    "EM algorithm did not converge!");
+        }
+
+        fitCompleted(n, iterations, start);
+
+        return new CompetingRisksDistribution(WeibullEM.components(null, shapes, scales));
+
+    }
+
+    /**
+     * @brief Estimate parameters
+     *
+     * Estimate the failure modes given samples data with the default maximum
+     * number of iterations and tolerance
+     *
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     * @param count number of failure modes
+     *
+     * @return return a new competing risks distribution with estimated
+     * parameters
+     *
+     * @exception IllegalArgumentException invalid arguments, see
+     * estimate(double[], boolean[], int, int, double)
+     * @exception ArithmeticException EM algorithm did not converge
+     * @exception ArithmeticException failure mode estimation error
+     *
+     */
+    public static CompetingRisksDistribution estimate(double[] data, boolean[] censored,
+            int count) {
+
+        return estimate(data, censored, count, DEFAULT_MAX_ITERATIONS, DEFAULT_MIN_TOL);
+
+    }
+
+    /////////////////////
+    // PRIVATE METHODS //
+    /////////////////////
+
+    /*
+     * Write the attribution of the failures to the modes; return the
+     * log-likelihood of the series system
+     */
+    private static double eStep(double[] data, boolean[] censored,
+            double[] shapes, double[] scales, double[][] resp) {
+
+        int count = shapes.length;
+
+        double[] logShapes = new double[count];
+        double[] logScales = new double[count];
+        for (int j = 0; j < count; j++) {
+            logShapes[j] = Math.log(shapes[j]);
+            logScales[j] = Math.log(scales[j]);
+        }
+
+        return Parallel.sum(data.length, 1, (from, to, acc) -> {
+
+            for (int i = from; i < to; i++) {
+
+                double logt = Math.log(data[i]);
+                double cumulative = 0.0;
+                double total = 0.0;
+
+                for (int j = 0; j < count; j++) {
+                    double z = shapes[j] * (logt - logScales[j]);
+                    double w = Math.exp(z);
+                    cumulative += w;
+                    if (censored[i] == false) {
+                        // hazard = shape / t * (t / scale)^shape
+                        double h = Math.exp(logShapes[j] - logt + z);
+                        resp[j][i] = h;
+                        total += h;
+                    } else {
+                        resp[j][i] = 0.0;
+                    }
+                }
+
+                if (censored[i] == false) {
+                    for (int j = 0; j < count; j++) {
+                        resp[j][i] /= total;
+                    }
+                    acc[0] += Math.log(total);
+                }
+
+                acc[0] -= cumulative;
+
+            }
+
+        })[0];
+
+    }
+
+}
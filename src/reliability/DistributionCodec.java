@@ -0,0 +1,488 @@
+package reliability;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Distribution codec class
+ *
+ * Compact binary encoding of the fitted distributions. A record is a one
+ * byte type tag followed by the primitive parameters of the distribution.
+ * Single records written by {@link #toBytes(ReliabilityDistribution)} and
+ * {@link #write(ReliabilityDistribution, DataOutput)} are preceded by the
+ * codec version; snapshot files hold a header (magic number, codec version,
+ * number of records) followed by the records, and are read and written
+ * through a memory mapped file. Snapshots are little endian.
+ *
+ */
+public final class DistributionCodec {
+
+    /**
+     * @brief Codec version
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * @brief Weibull distribution type tag
+     */
+    public static final byte WEIBULL = 1;
+
+    /**
+     * @brief Weibull mixture distribution type tag
+     */
+    public static final byte WEIBULL_MIXTURE = 2;
+
+    /**
+     * @brief Competing risks distribution type tag
+     */
+    public static final byte COMPETING_RISKS = 3;
+
+    private static final int MAGIC = 0x52454c44; // "RELD"
+    private static final int HEADER_SIZE = 12;
+    private static final int MIN_RECORD_SIZE = 1 + 2 * Double.BYTES;
+
+    private DistributionCodec() {
+    }
+
+    /**
+     * @brief Encoded size
+     *
+     * Number of bytes used by the record of a distribution
+     *
+     * @param dist distribution
+     *
+     * @return the record size in bytes
+     *
+     * @exception IllegalArgumentException unsupported distribution type
+     *
+     */
+    public static int size(ReliabilityDistribution dist) {
+
+        if (dist instanceof WeibullDistribution) {
+            return 1 + 2 * Double.BYTES;
+        }
+        if (dist instanceof WeibullMixtureDistribution) {
+            int count = ((WeibullMixtureDistribution) dist).getComponents().length;
+            return 1 + Integer.BYTES + 3 * count * Double.BYTES;
+        }
+        if (dist instanceof CompetingRisksDistribution) {
+            int count = ((CompetingRisksDistribution) dist).getComponents().length;
+            return 1 + Integer.BYTES + 2 * count * Double.BYTES;
+        }
+
+        throw unsupported(dist);
+
+    }
+
+    /**
+     * @brief Encode a distribution
+     *
+     * Write the record of a distribution at the current buffer position
+     *
+     * @param dist distribution
+     * @param buffer destination buffer
+     *
+     * @exception IllegalArgumentException unsupported distribution type
+     * @exception java.nio.BufferOverflowException not enough space in the
+     * buffer
+     *
+     */
+    public static void encode(ReliabilityDistribution dist, ByteBuffer buffer) {
+
+        if (dist instanceof WeibullDistribution) {
+            WeibullDistribution weibull = (WeibullDistribution) dist;
+            buffer.put(WEIBULL);
+            buffer.putDouble(weibull.getShape());
+            buffer.putDouble(weibull.getScale());
+            return;
+        }
+        if (dist instanceof WeibullMixtureDistribution) {
+            WeibullMixtureDistribution mixture = (WeibullMixtureDistribution) dist;
+            double[] weights = mixture.getWeights();
+            WeibullDistribution[] components = mixture.getComponents();
+            buffer.put(WEIBULL_MIXTURE);
+            buffer.putInt(components.length);
+            for (int j = 0; j < components.length; j++) {
+                buffer.putDouble(weights[j]);
+                buffer.putDouble(components[j].getShape());
+                buffer.putDouble(components[j].getScale());
+            }
+            return;
+        }
+        if (dist instanceof CompetingRisksDistribution) {
+            WeibullDistribution[] components = ((CompetingRisksDistribution) dist).getComponents();
+            buffer.put(COMPETING_RISKS);
+            buffer.putInt(components.length);
+            for (WeibullDistribution component : components) {
+                buffer.putDouble(component.getShape());
+                buffer.putDouble(component.getScale());
+            }
+            return;
+        }
+
+        throw unsupported(dist);
+
+    }
+
+    /**
+     * @brief Decode a distribution
+     *
+     * Read the record at the current buffer position
+     *
+     * @param buffer source buffer
+     *
+     * @return the decoded distribution
+     *
+     * @exception IllegalArgumentException unknown type tag or invalid
+     * parameters
+     * @exception java.nio.BufferUnderflowException truncated record
+     *
+     */
+    public static ReliabilityDistribution decode(ByteBuffer buffer) {
+
+        byte tag = buffer.get();
+
+        switch (tag) {
+            case WEIBULL: {
+                double shape = buffer.getDouble();
+                double scale = buffer.getDouble();
+                return weibull(shape, scale);
+            }
+            case WEIBULL_MIXTURE: {
+                int count = count(buffer.getInt(), 3, buffer.remaining());
+                double[] weights = new double[count];
+                WeibullDistribution[] components = new WeibullDistribution[count];
+                for (int j = 0; j < count; j++) {
+                    weights[j] = buffer.getDouble();
+                    double shape = buffer.getDouble();
+                    double scale = buffer.getDouble();
+                    components[j] = weibull(shape, scale);
+                }
+                return new WeibullMixtureDistribution(weights, components);
+            }
+            case COMPETING_RISKS: {
+                int count = count(buffer.getInt(), 2, buffer.remaining());
+                WeibullDistribution[] components = new WeibullDistribution[count];
+                for (int j = 0; j < count; j++) {
+                    double shape = buffer.getDouble();
+                    double scale = buffer.getDouble();
+                    components[j] = weibull(shape, scale);
+                }
+                return new CompetingRisksDistribution(components);
+            }
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown distribution type tag " + tag + "!");
+        }
+
+    }
+
+    /**
+     * @brief Encode a distribution
+     *
+     * Encode a distribution into a versioned byte array
+     *
+     * @param dist distribution
+     *
+     * @return the encoded distribution
+     *
+     * @exception IllegalArgumentException unsupported distribution type
+     *
+     */
+    public static byte[] toBytes(ReliabilityDistribution dist) {
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + size(dist));
+        buffer.put(VERSION);
+        encode(dist, buffer);
+
+        return buffer.array();
+
+    }
+
+    /**
+     * @brief Decode a distribution
+     *
+     * Decode a distribution from a versioned byte array
+     *
+     * @param bytes encoded distribution
+     *
+     * @return the decoded distribution
+     *
+     * @exception IllegalArgumentException unsupported version, unknown type
+     * tag, invalid parameters or truncated record
+     *
+     */
+    public static ReliabilityDistribution fromBytes(byte[] bytes) {
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        try {
+            checkVersion(buffer.get());
+            return decode(buffer);
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated distribution record!", ex);
+        }
+
+    }
+
+    /**
+     * @brief Write a distribution
+     *
+     * Write a versioned record to a data output
+     *
+     * @param dist distribution
+     * @param out data output
+     *
+     * @exception IOException I/O error
+     * @exception IllegalArgumentException unsupported distribution type
+     *
+     */
+    public static void write(ReliabilityDistribution dist, DataOutput out)
+            throws IOException {
+
+        out.write(toBytes(dist));
+
+    }
+
+    /**
+     * @brief Read a distribution
+     *
+     * Read a versioned record from a data input
+     *
+     * @param in data input
+     *
+     * @return the decoded distribution
+     *
+     * @exception IOException I/O error, java.io.EOFException if the record is
+     * truncated
+     * @exception IllegalArgumentException unsupported version or unknown type
+     * tag, invalid number of components or invalid parameters
+     *
+     */
+    public static ReliabilityDistribution read(DataInput in) throws IOException {
+
+        checkVersion(in.readByte());
+
+        byte tag = in.readByte();
+
+        // components are read one at a time, so that the allocated memory
+        // grows with the bytes actually read and not with an untrusted count
+        switch (tag) {
+            case WEIBULL:
+                return readWeibull(in);
+            case WEIBULL_MIXTURE: {
+                int count = count(in.readInt());
+                double[] weights = new double[Math.min(count, 16)];
+                List<WeibullDistribution> components = new ArrayList<>(weights.length);
+                for (int j = 0; j < count; j++) {
+                    if (j == weights.length) {
+                        weights = Arrays.copyOf(weights, Math.min(2 * j, count));
+                    }
+                    weights[j] = in.readDouble();
+                    components.add(readWeibull(in));
+                }
+                return new WeibullMixtureDistribution(weights,
+                        components.toArray(new WeibullDistribution[count]));
+            }
+            case COMPETING_RISKS: {
+                int count = count(in.readInt());
+                List<WeibullDistribution> components = new ArrayList<>(Math.min(count, 16));
+                for (int j = 0; j < count; j++) {
+                    components.add(readWeibull(in));
+                }
+                return new CompetingRisksDistribution(
+                        components.toArray(new WeibullDistribution[count]));
+            }
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown distribution type tag " + tag + "!");
+        }
+
+    }
+
+    /**
+     * @brief Write a snapshot
+     *
+     * Write a collection of distributions to a snapshot file through a memory
+     * mapped buffer. An existing file is overwritten.
+     *
+     * @param file snapshot file
+     * @param dists distributions
+     *
+     * @exception IOException I/O error
+     * @exception IllegalArgumentException unsupported distribution type or
+     * snapshot larger than 2 GB
+     *
+     */
+    public static void writeSnapshot(Path file,
+            Collection<? extends ReliabilityDistribution> dists)
+            throws IOException {
+
+        long length = HEADER_SIZE;
+        for (ReliabilityDistribution dist : dists) {
+            length += size(dist);
+        }
+
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Snapshot must be smaller than 2 GB!");
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+                FileChannel channel = raf.getChannel()) {
+
+            raf.setLength(length);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(dists.size());
+            for (ReliabilityDistribution dist : dists) {
+                encode(dist, buffer);
+            }
+
+            buffer.force();
+
+        }
+
+    }
+
+    /**
+     * @brief Read a snapshot
+     *
+     * Read all the distributions of a snapshot file through a memory mapped
+     * buffer
+     *
+     * @param file snapshot file
+     *
+     * @return the list of decoded distributions, in the order they were
+     * written
+     *
+     * @exception IOException I/O error, not a snapshot file, truncated or
+     * corrupted snapshot (unknown type tag, invalid number of components or
+     * invalid parameters)
+     * @exception IllegalArgumentException unsupported version
+     *
+     */
+    public static List<ReliabilityDistribution> readSnapshot(Path file)
+            throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            long length = channel.size();
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a distribution snapshot: " + file);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a distribution snapshot: " + file);
+            }
+            checkVersion(buffer.getInt());
+
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / MIN_RECORD_SIZE) {
+                throw new IOException("Corrupted distribution snapshot: " + file);
+            }
+
+            List<ReliabilityDistribution> val = new ArrayList<>(count);
+
+            try {
+                for (int i = 0; i < count; i++) {
+                    val.add(decode(buffer));
+                }
+            } catch (BufferUnderflowException ex) {
+                throw new IOException("Truncated distribution snapshot: " + file, ex);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Corrupted distribution snapshot: " + file, ex);
+            }
+
+            return val;
+
+        }
+
+    }
+
+    /////////////////////
+    // PRIVATE METHODS //
+    /////////////////////
+    private static void checkVersion(int version) {
+
+        if (version != VERSION) {
+            throw new IllegalArgumentException(
+                    "Unsupported codec version " + version + "!");
+        }
+
+    }
+
+    private static int count(int count) {
+
+        if (count <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid number of components " + count + "!");
+        }
+
+        return count;
+
+    }
+
+    private static int count(int count, int doubles, int remaining) {
+
+        if (count(count) * (long) doubles * Double.BYTES > remaining) {
+            throw new IllegalArgumentException(
+                    "Invalid number of components " + count + "!");
+        }
+
+        return count;
+
+    }
+
+    private static WeibullDistribution readWeibull(DataInput in) throws IOException {
+
+        double shape = in.readDouble();
+        double scale = in.readDouble();
+
+        return weibull(shape, scale);
+
+    }
+
+    /*
+     * Decoded parameters must be finite and greater than 0.0, NaN included
+     */
+    private static WeibullDistribution weibull(double shape, double scale) {
+
+        if (!(shape > 0.0) || !(scale > 0.0)
+                || Double.isInfinite(shape) || Double.isInfinite(scale)) {
+            throw new IllegalArgumentException(
+                    "Invalid Weibull parameters " + shape + ", " + scale + "!");
+        }
+
+        return new WeibullDistribution(shape, scale);
+
+    }
+
+    private static IllegalArgumentException unsupported(ReliabilityDistribution dist) {
+
+        return new IllegalArgumentException("Unsupported distribution type "
+                + (dist == null ? "null" : dist.getClass().getName()) + "!");
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package reliability;
+
+/**
+ * Fit listener interface
+ *
+ * Receives the events raised by the estimators and by the bulk evaluation
+ * methods. A listener is installed with
+ * {@link ReliabilityDistribution#setFitListener(FitListener)}; when none is
+ * installed the {@link #NONE} listener is used, whose empty methods are
+ * inlined away by the JIT.
+ *
+ */
+public interface FitListener {
+
+    /**
+     * @brief No-op listener
+     *
+     * Listener that ignores every event
+     *
+     */
+    FitListener NONE = new FitListener() {
+
+        @Override
+        public void fitCompleted(int size, int iterations, long nanos) {
+        }
+
+        @Override
+        public void fitFailed(int size, int iterations, String reason, long nanos) {
+        }
+
+        @Override
+        public void bulkEvaluated(int size, long nanos) {
+        }
+
+    };
+
+    /**
+     * @brief Fit completed
+     *
+     * Called when an estimation completes successfully
+     *
+     * @param size number of samples
+     * @param iterations number of iterations used by the solver
+     * @param nanos elapsed time in nanoseconds
+     *
+     */
+    void fitCompleted(int size, int iterations, long nanos);
+
+    /**
+     * @brief Fit failed
+     *
+     * Called when an estimation throws an ArithmeticException
+     *
+     * @param size number of samples
+     * @param iterations number of iterations used by the solver
+     * @param reason exception message
+     * @param nanos elapsed time in nanoseconds
+     *
+     */
+    void fitFailed(int size, int iterations, String reason, long nanos);
+
+    /**
+     * @brief Bulk evaluation
+     *
+     * Called when a vector evaluation (pdf, cdf, reliability, ...) completes
+     *
+     * @param size number of evaluated points
+     * @param nanos elapsed time in nanoseconds
+     *
+     */
+    void bulkEvaluated(int size, long nanos);
+
+}
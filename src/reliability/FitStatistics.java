@@ -0,0 +1,221 @@
+package reliability;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Fit statistics class
+ *
+ * Fit listener collecting latency histograms, iteration counts, failure
+ * reasons, dataset sizes and bulk evaluation throughput. The collected values
+ * are exposed through JMX by {@link #register()}.
+ *
+ */
+public class FitStatistics implements FitListener, FitStatisticsMBean {
+
+    /**
+     * @brief Default JMX object name
+     */
+    public static final String OBJECT_NAME = "reliability:type=FitStatistics";
+
+    private final LatencyHistogram fitNanos = new LatencyHistogram();
+    private final LatencyHistogram iterations = new LatencyHistogram();
+    private final LatencyHistogram sizes = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> reasons = new ConcurrentHashMap<>();
+    private final LongAdder evaluatedPoints = new LongAdder();
+    private final LongAdder evaluationNanos = new LongAdder();
+
+    @Override
+    public void fitCompleted(int size, int iterations, long nanos) {
+
+        fitNanos.record(nanos);
+        this.iterations.record(iterations);
+        sizes.record(size);
+
+    }
+
+    @Override
+    public void fitFailed(int size, int iterations, String reason, long nanos) {
+
+        fitNanos.record(nanos);
+        this.iterations.record(iterations);
+        sizes.record(size);
+        failures.increment();
+        reasons.computeIfAbsent(String.valueOf(reason), k -> new LongAdder()).increment();
+
+    }
+
+    @Override
+    public void bulkEvaluated(int size, long nanos) {
+
+        evaluatedPoints.add(size);
+        evaluationNanos.add(nanos);
+
+    }
+
+    /**
+     * @brief Register the MBean
+     *
+     * Register this object in the platform MBean server with the default
+     * object name
+     *
+     * @return the registered object name
+     *
+     * @exception IllegalStateException the MBean can not be registered
+     *
+     */
+    public ObjectName register() {
+
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            return name;
+        } catch (JMException ex) {
+            throw new IllegalStateException("MBean registration error!", ex);
+        }
+
+    }
+
+    /**
+     * @brief Fit latency histogram
+     *
+     * @return the histogram of the fit latencies in nanoseconds
+     *
+     */
+    public LatencyHistogram getFitLatencies() {
+
+        return fitNanos;
+
+    }
+
+    @Override
+    public long getFitCount() {
+
+        return fitNanos.getCount();
+
+    }
+
+    @Override
+    public long getFailureCount() {
+
+        return failures.sum();
+
+    }
+
+    @Override
+    public Map<String, Long> getFailureReasons() {
+
+        Map<String, Long> val = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> e : reasons.entrySet()) {
+            val.put(e.getKey(), e.getValue().sum());
+        }
+
+        return val;
+
+    }
+
+    @Override
+    public double getMeanFitNanos() {
+
+        return fitNanos.getMean();
+
+    }
+
+    @Override
+    public long getFitNanos50() {
+
+        return fitNanos.getPercentile(50.0);
+
+    }
+
+    @Override
+    public long getFitNanos99() {
+
+        return fitNanos.getPercentile(99.0);
+
+    }
+
+    @Override
+    public long getMaxFitNanos() {
+
+        return fitNanos.getMax();
+
+    }
+
+    @Override
+    public double getMeanIterations() {
+
+        return iterations.getMean();
+
+    }
+
+    @Override
+    public long getMaxIterations() {
+
+        return iterations.getMax();
+
+    }
+
+    @Override
+    public double getMeanDatasetSize() {
+
+        return sizes.getMean();
+
+    }
+
+    @Override
+    public long getMaxDatasetSize() {
+
+        return sizes.getMax();
+
+    }
+
+    @Override
+    public long getEvaluatedPoints() {
+
+        return evaluatedPoints.sum();
+
+    }
+
+    /**
+     * @brief Evaluation throughput
+     *
+     * @return the number of points evaluated per second by the bulk methods
+     *
+     */
+    @Override
+    public double getEvaluationThroughput() {
+
+        long nanos = evaluationNanos.sum();
+
+        return nanos == 0 ? 0.0 : evaluatedPoints.sum() * 1e9 / nanos;
+
+    }
+
+    @Override
+    public void reset() {
+
+        fitNanos.reset();
+        iterations.reset();
+        sizes.reset();
+        failures.reset();
+        reasons.clear();
+        evaluatedPoints.reset();
+        evaluationNanos.reset();
+
+    }
+
+}
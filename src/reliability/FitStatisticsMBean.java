@@ -0,0 +1,42 @@
+package reliability;
+
+import java.util.Map;
+
+/**
+ * Fit statistics management interface
+ *
+ * JMX view of the metrics collected by {@link FitStatistics}. Latencies are
+ * expressed in nanoseconds.
+ *
+ */
+public interface FitStatisticsMBean {
+
+    long getFitCount();
+
+    long getFailureCount();
+
+    Map<String, Long> getFailureReasons();
+
+    double getMeanFitNanos();
+
+    long getFitNanos50();
+
+    long getFitNanos99();
+
+    long getMaxFitNanos();
+
+    double getMeanIterations();
+
+    long getMaxIterations();
+
+    double getMeanDatasetSize();
+
+    long getMaxDatasetSize();
+
+    long getEvaluatedPoints();
+
+    double getEvaluationThroughput();
+
+    void reset();
+
+}
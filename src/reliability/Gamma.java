@@ -0,0 +1,149 @@
+package reliability;
+
+/**
+ * Gamma function helper class
+ *
+ * Logarithm of the gamma function by the Lanczos approximation (g = 7, nine
+ * coefficients, relative error below 1e-15) and the upper incomplete gamma
+ * function, by its power series for x < a + 1 and by the modified Lentz
+ * continued fraction otherwise.
+ *
+ */
+final class Gamma {
+
+    private static final double LANCZOS_G = 7.0;
+
+    private static final double[] LANCZOS = {
+        0.99999999999980993,
+        676.5203681218851,
+        -1259.1392167224028,
+        771.32342877765313,
+        -176.61502916214059,
+        12.507343278686905,
+        -0.13857109526572012,
+        9.9843695780195716e-6,
+        1.5056327351493116e-7
+    };
+
+    private static final double HALF_LOG_2PI = 0.5 * Math.log(2.0 * Math.PI);
+
+    private static final int MAX_ITERATIONS = 1000;
+    private static final double EPSILON = 1e-15;
+    private static final double TINY = 1e-300;
+
+    private Gamma() {
+    }
+
+    /**
+     * @brief Logarithm of the gamma function
+     *
+     * @param x point, greater than 0.0
+     *
+     * @return ln(Gamma(x))
+     *
+     */
+    static double logGamma(double x) {
+
+        if (x < 0.5) {
+            // reflection formula
+            return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - logGamma(1.0 - x);
+        }
+
+        double z = x - 1.0;
+        double sum = LANCZOS[0];
+        for (int i = 1; i < LANCZOS.length; i++) {
+            sum += LANCZOS[i] / (z + i);
+        }
+        double t = z + LANCZOS_G + 0.5;
+
+        return HALF_LOG_2PI + (z + 0.5) * Math.log(t) - t + Math.log(sum);
+
+    }
+
+    /**
+     * @brief Gamma function
+     *
+     * @param x point, greater than 0.0
+     *
+     * @return Gamma(x)
+     *
+     */
+    static double gamma(double x) {
+
+        return Math.exp(logGamma(x));
+
+    }
+
+    /**
+     * @brief Scaled upper incomplete gamma function
+     *
+     * Evaluate exp(x) * Gamma(a, x), which neither underflows nor overflows
+     * for large x where Gamma(a, x) alone does
+     *
+     * @param a shape, greater than 0.0
+     * @param logGammaA ln(Gamma(a)), shared by the evaluations with the
+     * same shape
+     * @param x point, greater than or equal to 0.0
+     *
+     * @return exp(x) * Gamma(a, x)
+     *
+     * @exception ArithmeticException the evaluation did not converge
+     *
+     */
+    static double upperScaled(double a, double logGammaA, double x)
+            throws ArithmeticException {
+
+        if (x <= 0.0) {
+            return Math.exp(logGammaA);
+        }
+
+        double logxa = a * Math.log(x);
+
+        if (x < a + 1.0) {
+
+            // exp(x) * (Gamma(a) - gamma(a, x)), with
+            // gamma(a, x) = x^a exp(-x) sum x^n / (a (a + 1) ... (a + n))
+            double term = 1.0 / a;
+            double sum = term;
+            for (int n = 1; n < MAX_ITERATIONS; n++) {
+                term *= x / (a + n);
+                sum += term;
+                if (Math.abs(term) < Math.abs(sum) * EPSILON) {
+                    return Math.exp(x + logGammaA) - Math.exp(logxa) * sum;
+                }
+            }
+
+        } else {
+
+            // Gamma(a, x) = x^a exp(-x) / (x + 1 - a - 1 (1 - a) / (x + 3 - a - ...))
+            double b = x + 1.0 - a;
+            double c = 1.0 / TINY;
+            double d = 1.0 / b;
+            double f = d;
+            for (int n = 1; n < MAX_ITERATIONS; n++) {
+                double an = -n * (n - a);
+                b += 2.0;
+                d = an * d + b;
+                if (Math.abs(d) < TINY) {
+                    d = TINY;
+                }
+                c = b + an / c;
+                if (Math.abs(c) < TINY) {
+                    c = TINY;
+                }
+                d = 1.0 / d;
+                double delta = d * c;
+                f *= delta;
+                if (Math.abs(delta - 1.0) < EPSILON) {
+                    return Math.exp(logxa + Math.log(f));
+                }
+            }
+
+        }
+
+        throw new ArithmeticException(
+                "Incomplete gamma function did not converge!");
+
+    }
+
+}
@@ -0,0 +1,381 @@
+package reliability;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Goodness of fit test class
+ *
+ * Empirical distribution function statistics (Anderson-Darling,
+ * Kolmogorov-Smirnov and Cramer-von Mises) for right censored data. The
+ * samples are sorted once at construction together with the Kaplan-Meier
+ * estimate of the distribution function; each statistic then costs one bulk
+ * cdf evaluation and one linear pass.
+ *
+ * With censored data the quadratic statistics are integrated up to the
+ * largest observation (Pettitt and Stephens); with complete data they reduce
+ * to the classical statistics.
+ *
+ */
+public class GoodnessOfFitTest {
+
+    /**
+     * Goodness of fit statistic
+     */
+    public enum Statistic {
+
+        /**
+         * Anderson-Darling statistic A^2
+         */
+        ANDERSON_DARLING,
+        /**
+         * Kolmogorov-Smirnov statistic D
+         */
+        KOLMOGOROV_SMIRNOV,
+        /**
+         * Cramer-von Mises statistic W^2
+         */
+        CRAMER_VON_MISES
+
+    }
+
+    private static final double MIN_CDF = Double.MIN_NORMAL;
+    private static final double MAX_CDF = 1.0 - 0x1.0p-53;
+
+    private final double[] data;    // sorted samples
+    private final boolean[] censored;
+    private final double[] ecdf;    // Kaplan-Meier estimate right after each sample
+    private final double[] ccdf;    // Kaplan-Meier estimate of the censoring times
+
+    /**
+     * @brief Goodness of fit test class constructor
+     *
+     * Sort the samples and compute the Kaplan-Meier estimate of the
+     * distribution function
+     *
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     *
+     * @exception IllegalArgumentException data vector can not be null
+     * @exception IllegalArgumentException data vector must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException type vector must be of the same
+     * length than the data vector
+     *
+     */
+    public GoodnessOfFitTest(double[] data, boolean[] censored)
+            throws IllegalArgumentException {
+
+        if (data == null) {
+            throw new IllegalArgumentException(
+                    "Data vector can not be null!");
+        }
+
+        if (data.length <= 0) {
+            throw new IllegalArgumentException(
+                    "Data vector must be of size greater 0!");
+        }
+
+        if (censored == null || data.length != censored.length) {
+            throw new IllegalArgumentException(
+                    "Type vector must be of the same length than the data vector!");
+        }
+
+        int n = data.length;
+
+        this.data = new double[n];
+        this.censored = new boolean[n];
+        this.ecdf = new double[n];
+        this.ccdf = new double[n];
+
+        ReliabilityDistribution.sort(data, censored, this.data, this.censored);
+
+        double surv = 1.0;
+        double survCensoring = 1.0;
+        for (int i = 0; i < n; i++) {
+            if (this.censored[i] == false) {
+                surv *= 1.0 - 1.0 / (n - i);
+            } else {
+                survCensoring *= 1.0 - 1.0 / (n - i);
+            }
+            this.ecdf[i] = 1.0 - surv;
+            this.ccdf[i] = 1.0 - survCensoring;
+        }
+
+    }
+
+    /**
+     * @brief Compute a statistic
+     *
+     * Compute a goodness of fit statistic of the samples against a
+     * distribution
+     *
+     * @param statistic statistic to compute
+     * @param dist hypothesized distribution
+     *
+     * @return the statistic value
+     *
+     */
+    public double statistic(Statistic statistic, ReliabilityDistribution dist) {
+
+        switch (statistic) {
+            case ANDERSON_DARLING:
+                return andersonDarling(dist);
+            case KOLMOGOROV_SMIRNOV:
+                return kolmogorovSmirnov(dist);
+            default:
+                return cramerVonMises(dist);
+        }
+
+    }
+
+    /**
+     * @brief Anderson-Darling statistic
+     *
+     * Evaluate n times the integral of (Fn - F)^2 / (F (1 - F)) dF
+     *
+     * @param dist hypothesized distribution
+     *
+     * @return the Anderson-Darling statistic
+     *
+     */
+    public double andersonDarling(ReliabilityDistribution dist) {
+
+        double[] u = dist.cdf(data);
+        int n = data.length;
+
+        double val = 0.0;
+        double a = 0.0;
+        double c = 0.0;
+
+        for (int i = 0; i <= n; i++) {
+
+            double b = i < n ? clamp(u[i]) : end(u);
+
+            // integral of (c - u)^2 / (u (1 - u)) over [a, b]
+            if (b > a) {
+                val -= b - a;
+                if (c != 0.0) {
+                    val += c * c * Math.log(b / a);
+                }
+                if (c != 1.0) {
+                    val += (1.0 - c) * (1.0 - c) * (Math.log1p(-a) - Math.log1p(-b));
+                }
+            }
+
+            if (i < n) {
+                a = Math.max(a, b);
+                c = ecdf[i];
+            }
+
+        }
+
+        return n * val;
+
+    }
+
+    /**
+     * @brief Kolmogorov-Smirnov statistic
+     *
+     * Evaluate the maximum distance between Fn and F up to the largest
+     * observation
+     *
+     * @param dist hypothesized distribution
+     *
+     * @return the Kolmogorov-Smirnov statistic
+     *
+     */
+    public double kolmogorovSmirnov(ReliabilityDistribution dist) {
+
+        double[] u = dist.cdf(data);
+        int n = data.length;
+
+        double val = 0.0;
+        double c = 0.0;
+
+        for (int i = 0; i < n; i++) {
+            val = Math.max(val, Math.abs(u[i] - c));
+            c = ecdf[i];
+            val = Math.max(val, Math.abs(u[i] - c));
+        }
+
+        return val;
+
+    }
+
+    /**
+     * @brief Cramer-von Mises statistic
+     *
+     * Evaluate n times the integral of (Fn - F)^2 dF
+     *
+     * @param dist hypothesized distribution
+     *
+     * @return the Cramer-von Mises statistic
+     *
+     */
+    public double cramerVonMises(ReliabilityDistribution dist) {
+
+        double[] u = dist.cdf(data);
+        int n = data.length;
+
+        double val = 0.0;
+        double a = 0.0;
+        double c = 0.0;
+
+        for (int i = 0; i <= n; i++) {
+
+            double b = i < n ? u[i] : end(u);
+
+            // integral of (c - u)^2 over [a, b]
+            if (b > a) {
+                double db = b - c;
+                double da = a - c;
+                val += (db * db * db - da * da * da) / 3.0;
+            }
+
+            if (i < n) {
+                a = Math.max(a, b);
+                c = ecdf[i];
+            }
+
+        }
+
+        return n * val;
+
+    }
+
+    /**
+     * @brief Bootstrap p-value
+     *
+     * Compute the p-value of a statistic for the Weibull hypothesis by
+     * parametric bootstrap. The Weibull distribution is fitted to the samples,
+     * then each replicate draws a sample of the same size from the fitted
+     * distribution, censors it with censoring times drawn from the
+     * Kaplan-Meier estimate of the censoring distribution, refits it and
+     * computes the statistic. Replicates run in parallel; replicates
+     * whose fit fails are discarded.
+     *
+     * @param statistic statistic to compute
+     * @param replicates number of bootstrap replicates
+     * @param seed random seed, the result does not depend on the number of
+     * threads
+     *
+     * @return the bootstrap p-value
+     *
+     * @exception IllegalArgumentException number of replicates must be
+     * greater than 0
+     * @exception ArithmeticException the samples or all the replicates can
+     * not be fitted
+     *
+     */
+    public double pValue(Statistic statistic, int replicates, long seed)
+            throws ArithmeticException, IllegalArgumentException {
+
+        if (replicates <= 0) {
+            throw new IllegalArgumentException(
+                    "Number of replicates must be greater than 0!");
+        }
+
+        ReliabilityDistribution fitted = WeibullDistribution.estimate(data, censored);
+        double observed = statistic(statistic, fitted);
+
+        int[] outcome = IntStream.range(0, replicates).parallel()
+                .map(b -> replicate(statistic, fitted, observed, seed, b))
+                .toArray();
+
+        int valid = 0;
+        int extreme = 0;
+        for (int v : outcome) {
+            if (v >= 0) {
+                valid++;
+                extreme += v;
+            }
+        }
+
+        if (valid == 0) {
+            throw new ArithmeticException(
+                    "Bootstrap replicates can not be fitted!");
+        }
+
+        return (extreme + 1.0) / (valid + 1.0);
+
+    }
+
+    /////////////////////
+    // PRIVATE METHODS //
+    /////////////////////
+    private int replicate(Statistic statistic, ReliabilityDistribution fitted,
+            double observed, long seed, int b) {
+
+        Random generator = new Random(seed + 0x9E3779B97F4A7C15L * (b + 1));
+        int n = data.length;
+
+        double[] sample = new double[n];
+        boolean[] type = new boolean[n];
+        boolean failure = false;
+
+        for (int i = 0; i < n; i++) {
+            double t = fitted.random(generator);
+            double limit = censoringTime(1.0 - generator.nextDouble());
+            if (t > limit) {
+                sample[i] = limit;
+                type[i] = true;
+            } else {
+                sample[i] = t;
+                failure = true;
+            }
+        }
+
+        if (failure == false) {
+            return -1;
+        }
+
+        try {
+            ReliabilityDistribution dist = WeibullDistribution.estimate(sample, type);
+            double val = new GoodnessOfFitTest(sample, type).statistic(statistic, dist);
+            return val >= observed ? 1 : 0;
+        } catch (ArithmeticException | IllegalArgumentException ex) {
+            return -1;
+        }
+
+    }
+
+    private double censoringTime(double u) {
+
+        // inverse of the censoring times Kaplan-Meier estimate, infinite
+        // beyond its last step
+        if (u > ccdf[ccdf.length - 1]) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        int lo = 0;
+        int hi = ccdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ccdf[mid] >= u) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+
+        return data[lo];
+
+    }
+
+    private double end(double[] u) {
+
+        // integrate up to 1 when the Kaplan-Meier estimate reaches 1,
+        // otherwise stop at the largest observation
+        return ecdf[ecdf.length - 1] == 1.0 ? 1.0 : clamp(u[u.length - 1]);
+
+    }
+
+    private static double clamp(double u) {
+
+        return Math.min(Math.max(u, MIN_CDF), MAX_CDF);
+
+    }
+
+}
@@ -0,0 +1,174 @@
+package reliability;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram class
+ *
+ * Log-linear histogram of non negative long values (HdrHistogram layout):
+ * every power of two is split into 32 linear sub-buckets, so that recorded
+ * values are kept with a relative error lower than 1/32. The exact count
+ * and sum of the values are kept next to the buckets, so that the mean is
+ * exact; percentiles and maximum come from the buckets. Recording is lock
+ * free.
+ *
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * @brief Record a value
+     *
+     * Record a value, negative values are recorded as 0
+     *
+     * @param value value to record
+     *
+     */
+    public void record(long value) {
+
+        long val = Math.max(value, 0L);
+
+        counts.incrementAndGet(index(val));
+        count.increment();
+        sum.add(val);
+
+    }
+
+    /**
+     * @brief Number of recorded values
+     *
+     * @return the number of recorded values
+     *
+     */
+    public long getCount() {
+
+        return count.sum();
+
+    }
+
+    /**
+     * @brief Mean value
+     *
+     * Exact mean of the recorded values
+     *
+     * @return the mean value, 0.0 if the histogram is empty
+     *
+     */
+    public double getMean() {
+
+        long n = count.sum();
+
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+
+    }
+
+    /**
+     * @brief Maximum value
+     *
+     * @return the lower bound of the highest non empty bucket, 0 if the
+     * histogram is empty
+     *
+     */
+    public long getMax() {
+
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) != 0) {
+                return value(i);
+            }
+        }
+
+        return 0L;
+
+    }
+
+    /**
+     * @brief Percentile
+     *
+     * Value at the given percentile
+     *
+     * @param percentile percentile in [0.0, 100.0]
+     *
+     * @return the lower bound of the bucket holding the percentile, 0 if the
+     * histogram is empty
+     *
+     * @exception IllegalArgumentException percentile must be in [0.0, 100.0]
+     *
+     */
+    public long getPercentile(double percentile) {
+
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException(
+                    "Percentile must be in [0.0, 100.0]!");
+        }
+
+        long count = getCount();
+        if (count == 0) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return value(i);
+            }
+        }
+
+        return getMax();
+
+    }
+
+    /**
+     * @brief Reset the histogram
+     *
+     */
+    public void reset() {
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0L);
+        }
+        count.reset();
+        sum.reset();
+
+    }
+
+    /////////////////////
+    // PRIVATE METHODS //
+    /////////////////////
+    static int index(long value) {
+
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+
+        return (shift + 1) * SUB_BUCKETS + sub;
+
+    }
+
+    static long value(int index) {
+
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        int sub = index % SUB_BUCKETS;
+
+        return (long) (SUB_BUCKETS + sub) << shift;
+
+    }
+
+}
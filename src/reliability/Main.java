@@ -1,64 +1,515 @@
 package reliability;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.StringTokenizer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Batch fitting command line tool
+ *
+ * Fit a Weibull distribution to each input file in parallel and write one
+ * line of parameters and diagnostics per file. Run with --help for the
+ * input formats and the options.
+ *
+ */
 public class Main {
 
-    public static void main(String[] args) throws IOException {
+    private static final String USAGE
+            = "Usage: java -jar reliability.jar [options] <file|directory>...\n"
+            + "\n"
+            + "Fit a Weibull distribution to each input file. Directories are\n"
+            + "expanded to the *.csv and *.bin files they contain.\n"
+            + "\n"
+            + "Input formats:\n"
+            + "  *.csv  header line, then one 'time;type' line per sample,\n"
+            + "         type 0 for failures and 1 for right censored samples\n"
+            + "  *.bin  big endian int n, n double times, n censoring bytes\n"
+            + "\n"
+            + "Options:\n"
+            + "  -o, --output FILE       write the results to FILE (default stdout)\n"
+            + "  -s, --samples N         draw N random samples from each fit, written\n"
+            + "                          after the results as one 'file;samples...'\n"
+            + "                          line per fitted input\n"
+            + "  -b, --sample-file FILE  write the samples to FILE as little endian\n"
+            + "                          doubles instead, N per input in input order,\n"
+            + "                          N NaNs for the inputs whose fit failed\n"
+            + "  -t, --threads N         number of worker threads (default: cores)\n"
+            + "  -d, --separator C       field separator (default ;)\n"
+            + "      --max-iterations N  Newton method iterations (default 100)\n"
+            + "      --tolerance X       Newton method tolerance (default 1e-6)\n"
+            + "      --seed S            random seed of the samples (default 0)\n"
+            + "  -h, --help              print this message\n";
 
-        ArrayList<Double> time = new ArrayList();
-        ArrayList<Integer> type = new ArrayList();
-        StringTokenizer st;
+    private static final int SAMPLE_BLOCK = 1 << 16;
 
-        BufferedReader br = null;
+    private Path output;
+    private Path sampleFile;
+    private int samples;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String separator = ";";
+    private int maxIterations = 100;
+    private double minTol = 1e-6;
+    private long seed;
+    private final List<Path> inputs = new ArrayList<>();
+    private FileChannel channel;
+
+    /**
+     * Samples of one input file
+     */
+    private static final class Samples {
+
+        double[] data;
+        boolean[] censored;
+
+    }
+
+    /**
+     * Fit result of one input file
+     */
+    private static final class Fit {
+
+        int size;
+        int censored;
+        WeibullDistribution dist;
+        double andersonDarling = Double.NaN;
+        long nanos;
+        String error;
+        String line;
+        String samples;
+
+    }
+
+    public static void main(String[] args) {
+
+        Main main = new Main();
+
+        try {
+            if (!main.parse(args)) {
+                System.out.print(USAGE);
+                return;
+            }
+            System.exit(main.run() ? 0 : 1);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+        } catch (IOException ex) {
+            System.err.println(ex);
+            System.exit(2);
+        }
+
+    }
+
+    /////////////////////
+    // PRIVATE METHODS //
+    /////////////////////
+    private boolean parse(String[] args) throws IOException {
+
+        for (int i = 0; i < args.length; i++) {
+
+            String arg = args[i];
+
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    return false;
+                case "-o":
+                case "--output":
+                    output = Paths.get(value(args, ++i, arg));
+                    break;
+                case "-s":
+                case "--samples":
+                    samples = Integer.parseInt(value(args, ++i, arg));
+                    if (samples < 0) {
+                        throw new IllegalArgumentException(
+                                "Number of samples must be greater than or equal to 0!");
+                    }
+                    break;
+                case "-b":
+                case "--sample-file":
+                    sampleFile = Paths.get(value(args, ++i, arg));
+                    break;
+                case "-t":
+                case "--threads":
+                    threads = Integer.parseInt(value(args, ++i, arg));
+                    if (threads <= 0) {
+                        throw new IllegalArgumentException(
+                                "Number of threads must be greater than 0!");
+                    }
+                    break;
+                case "-d":
+                case "--separator":
+                    separator = value(args, ++i, arg);
+                    break;
+                case "--max-iterations":
+                    maxIterations = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--tolerance":
+                    minTol = Double.parseDouble(value(args, ++i, arg));
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("Unknown option " + arg + "!");
+                    }
+                    addInput(Paths.get(arg));
+            }
+
+        }
+
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("No input files!");
+        }
+        if (sampleFile != null && samples == 0) {
+            throw new IllegalArgumentException(
+                    "Number of samples must be given with the sample file!");
+        }
+
+        return true;
+
+    }
+
+    private static String value(String[] args, int i, String option) {
+
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value of option " + option + "!");
+        }
+
+        return args[i];
+
+    }
+
+    private void addInput(Path path) throws IOException {
+
+        if (!Files.isDirectory(path)) {
+            inputs.add(path);
+            return;
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(path, "*.{csv,bin}")) {
+            for (Path file : dir) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        inputs.addAll(files);
+
+    }
+
+    private boolean run() throws IOException {
+
+        boolean ok = true;
+
+        Writer out = new OutputStreamWriter(output == null ? System.out
+                : Files.newOutputStream(output), StandardCharsets.UTF_8);
+        channel = sampleFile == null ? null
+                : FileChannel.open(sampleFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        // text samples are spooled in input order, then appended to the table
+        Path spool = sampleFile == null && samples > 0
+                ? Files.createTempFile("reliability", ".samples") : null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, inputs.size()));
+
+        try (BufferedWriter writer = new BufferedWriter(out, 1 << 16)) {
+
+            List<Future<Fit>> futures = new ArrayList<>(inputs.size());
+            for (int i = 0; i < inputs.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> fit(index)));
+            }
+            executor.shutdown();
+
+            writer.write(String.join(separator, "file", "n", "censored", "shape",
+                    "scale", "andersonDarling", "millis", "error"));
+            writer.newLine();
+
+            try (BufferedWriter sampleWriter = spool == null ? null
+                    : Files.newBufferedWriter(spool, StandardCharsets.UTF_8)) {
+
+                for (int i = 0; i < futures.size(); i++) {
+
+                    Fit fit = get(futures.get(i), i);
+                    futures.set(i, null); // written, let it be collected
+
+                    writer.write(fit.line);
+                    writer.newLine();
+
+                    if (fit.error != null) {
+                        ok = false;
+                    }
+                    if (fit.samples != null) {
+                        sampleWriter.write(fit.samples);
+                        sampleWriter.newLine();
+                    }
+
+                }
+
+            }
+
+            // text samples in their own section, after the results table
+            if (spool != null) {
+                writer.newLine();
+                writer.write(String.join(separator, "file", "samples"));
+                writer.newLine();
+                try (Reader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+                    char[] buffer = new char[1 << 16];
+                    for (int len = reader.read(buffer); len >= 0; len = reader.read(buffer)) {
+                        writer.write(buffer, 0, len);
+                    }
+                }
+            }
+
+        } finally {
+            executor.shutdownNow();
+            if (channel != null) {
+                channel.close();
+            }
+            if (spool != null) {
+                Files.deleteIfExists(spool);
+            }
+        }
+
+        return ok;
+
+    }
+
+    /*
+     * Wait for the fit of the index-th input; a worker that died with an
+     * error is reported in the error column of its input, a failure to
+     * write the sample file aborts the run
+     */
+    private Fit get(Future<Fit> future, int index) throws IOException {
+
+        Path file = inputs.get(index);
 
-        
         try {
-            // Load the example file
-            System.out.println(br = new BufferedReader(new FileReader(Paths
-                    .get(new java.io.File(".").getCanonicalPath()
-                            + "\\\\reliab3.csv").toString())));
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fitting " + file, ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            Fit fit = new Fit();
+            fit.error = ex.getCause().toString();
+            fit.line = format(file, fit);
+            if (channel != null) {
+                writeSamples(null, index);
+            }
+            return fit;
+        }
+
+    }
+
+    /*
+     * Fit the index-th input; errors of the input are reported in its error
+     * column, errors writing the sample file are thrown
+     */
+    private Fit fit(int index) throws IOException {
+
+        Path file = inputs.get(index);
+        Fit fit = new Fit();
+
+        long start = System.nanoTime();
+
+        try {
+
+            Samples s = file.getFileName().toString().endsWith(".bin")
+                    ? readBinary(file) : readCsv(file);
+
+            fit.size = s.data.length;
+            for (boolean c : s.censored) {
+                if (c) {
+                    fit.censored++;
+                }
+            }
+
+            fit.dist = (WeibullDistribution) WeibullDistribution.estimate(s.data,
+                    s.censored, maxIterations, minTol);
+            fit.andersonDarling = new GoodnessOfFitTest(s.data, s.censored)
+                    .andersonDarling(fit.dist);
+
+        } catch (IOException | RuntimeException | OutOfMemoryError ex) {
+            fit.dist = null;
+            fit.error = ex instanceof RuntimeException && ex.getMessage() != null
+                    ? ex.getMessage() : ex.toString();
+        }
+
+        fit.nanos = System.nanoTime() - start;
+
+        // format and sample in the worker thread, the writer only copies
+        fit.line = format(file, fit);
+
+        if (channel != null) {
+            writeSamples(fit.dist, index);
+        } else if (fit.dist != null && samples > 0) {
+            Random generator = new Random(seed + index);
+            StringBuilder line = new StringBuilder((int) Math.min(64 + 24L * samples, 1 << 20));
+            line.append(file);
+            for (int i = 0; i < samples; i++) {
+                line.append(separator).append(fit.dist.random(generator));
+            }
+            fit.samples = line.toString();
+        }
+
+        return fit;
+
+    }
+
+    private String format(Path file, Fit fit) {
+
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(file).append(separator)
+                .append(fit.size).append(separator)
+                .append(fit.censored).append(separator);
+        if (fit.dist != null) {
+            sb.append(fit.dist.getShape()).append(separator)
+                    .append(fit.dist.getScale()).append(separator)
+                    .append(fit.andersonDarling);
+        } else {
+            sb.append(separator).append(separator);
+        }
+        sb.append(separator).append(fit.nanos / 1e6).append(separator);
+        if (fit.error != null) {
+            sb.append(fit.error.replace(separator, " "));
+        }
+
+        return sb.toString();
+
+    }
+
+    /*
+     * Write the samples of the index-th input to its block of the sample
+     * file, at index * N doubles; a failed fit, null dist, writes NaNs
+     */
+    private void writeSamples(ReliabilityDistribution dist, int index) throws IOException {
+
+        Random generator = new Random(seed + index);
+        ByteBuffer buffer = ByteBuffer.allocate(Math.min(SAMPLE_BLOCK, samples) * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        long position = (long) index * samples * Double.BYTES;
+
+        for (int done = 0; done < samples;) {
+
+            int count = Math.min(SAMPLE_BLOCK, samples - done);
+
+            buffer.clear();
+            for (int i = 0; i < count; i++) {
+                buffer.putDouble(dist == null ? Double.NaN : dist.random(generator));
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+
+            done += count;
+
+        }
+
+    }
+
+    private Samples readCsv(Path file) throws IOException {
+
+        double[] time = new double[1024];
+        boolean[] type = new boolean[1024];
+        int n = 0;
+
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
 
             br.readLine(); // read header
             String line = br.readLine();
 
             while (line != null) {
 
-                st = new StringTokenizer(line, ";");
+                if (!line.trim().isEmpty()) {
+
+                    int sep = line.indexOf(separator);
+                    if (sep < 0) {
+                        throw new IOException("Malformed line " + (n + 2) + " in " + file);
+                    }
+
+                    if (n == time.length) {
+                        time = Arrays.copyOf(time, 2 * n);
+                        type = Arrays.copyOf(type, 2 * n);
+                    }
 
-                time.add(new Double(st.nextToken()));
-                type.add(new Integer(st.nextToken()));
+                    try {
+                        time[n] = Double.parseDouble(line.substring(0, sep).trim());
+                        type[n] = Integer.parseInt(line.substring(sep + separator.length()).trim()) != 0;
+                    } catch (NumberFormatException ex) {
+                        throw new IOException("Malformed line " + (n + 2) + " in " + file, ex);
+                    }
+                    n++;
+
+                }
 
                 line = br.readLine();
 
             }
 
-        } finally {
-            br.close();
         }
 
-        double[] data = new double[time.size()];
-        boolean[] censored = new boolean[time.size()];
+        Samples s = new Samples();
+        s.data = Arrays.copyOf(time, n);
+        s.censored = Arrays.copyOf(type, n);
+
+        return s;
+
+    }
+
+    private static Samples readBinary(Path file) throws IOException {
 
-        for (int i = 0; i < time.size(); i++) {
-            data[i] = time.get(i).doubleValue();
-            if (type.get(i).intValue() == 0) {
-                censored[i] = false;
-            } else {
-                censored[i] = true;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+
+            // 4 bytes of header, then 9 bytes per sample
+            int n = in.readInt();
+            if (n < 0 || n > (Files.size(file) - 4) / 9) {
+                throw new IOException("Malformed binary file " + file);
+            }
+
+            Samples s = new Samples();
+            s.data = new double[n];
+            s.censored = new boolean[n];
+
+            for (int i = 0; i < n; i++) {
+                s.data[i] = in.readDouble();
+            }
+            for (int i = 0; i < n; i++) {
+                s.censored[i] = in.readByte() != 0;
             }
-        }
 
-        WeibullDistribution dist = (WeibullDistribution) WeibullDistribution.estimate(data, censored, 100, 1e-6);
+            return s;
 
-        // System.out.println(dist.estimate(data, censored, 100, 1e-6));
-        for (int i = 0; i < 100; i++) {
-            System.out.println(dist.random());
         }
 
     }
@@ -0,0 +1,160 @@
+package reliability;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel loops helper class
+ *
+ * Split an index range in blocks of BLOCK_SIZE elements processed on the
+ * common fork/join pool. Ranges not larger than one block run in the caller
+ * thread. The split tree only depends on the range length, so reductions
+ * give the same result on every run.
+ *
+ */
+final class Parallel {
+
+    static final int BLOCK_SIZE = 4096;
+
+    /**
+     * Range reduction, adds the contribution of [from, to) to acc
+     */
+    interface RangeSum {
+
+        void accumulate(int from, int to, double[] acc);
+
+    }
+
+    /**
+     * Range action, processes [from, to)
+     */
+    interface RangeAction {
+
+        void apply(int from, int to);
+
+    }
+
+    private Parallel() {
+    }
+
+    /**
+     * @brief Parallel sum
+     *
+     * Sum the partial accumulators of the blocks of [0, n)
+     *
+     * @param n range length
+     * @param width accumulator length
+     * @param task block reduction
+     *
+     * @return the accumulator of the whole range
+     *
+     */
+    static double[] sum(int n, int width, RangeSum task) {
+
+        if (n <= BLOCK_SIZE) {
+            double[] acc = new double[width];
+            task.accumulate(0, n, acc);
+            return acc;
+        }
+
+        return ForkJoinPool.commonPool().invoke(new SumTask(0, n, width, task));
+
+    }
+
+    /**
+     * @brief Parallel loop
+     *
+     * Apply an action to the blocks of [0, n)
+     *
+     * @param n range length
+     * @param action block action
+     *
+     */
+    static void forEach(int n, RangeAction action) {
+
+        if (n <= BLOCK_SIZE) {
+            action.apply(0, n);
+            return;
+        }
+
+        ForkJoinPool.commonPool().invoke(new ForEachTask(0, n, action));
+
+    }
+
+    private static final class SumTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int width;
+        private final RangeSum task;
+
+        SumTask(int from, int to, int width, RangeSum task) {
+
+            this.from = from;
+            this.to = to;
+            this.width = width;
+            this.task = task;
+
+        }
+
+        @Override
+        protected double[] compute() {
+
+            if (to - from <= BLOCK_SIZE) {
+                double[] acc = new double[width];
+                task.accumulate(from, to, acc);
+                return acc;
+            }
+
+            int mid = (from + to) >>> 1;
+            SumTask left = new SumTask(from, mid, width, task);
+            left.fork();
+            double[] acc = new SumTask(mid, to, width, task).compute();
+            double[] other = left.join();
+
+            for (int i = 0; i < width; i++) {
+                acc[i] = other[i] + acc[i];
+            }
+
+            return acc;
+
+        }
+
+    }
+
+    private static final class ForEachTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final RangeAction action;
+
+        ForEachTask(int from, int to, RangeAction action) {
+
+            this.from = from;
+            this.to = to;
+            this.action = action;
+
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= BLOCK_SIZE) {
+                action.apply(from, to);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new ForEachTask(from, mid, action),
+                    new ForEachTask(mid, to, action));
+
+        }
+
+    }
+
+}
@@ -1,6 +1,8 @@
 package reliability;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Random;
 
 /**
  * Reliability distribution class
@@ -13,6 +15,38 @@ public abstract class ReliabilityDistribution implements Serializable {
      */
     private static final long serialVersionUID = 7245887703531993664L;
 
+    private static volatile FitListener listener = FitListener.NONE;
+
+    private transient volatile LifeTable lifeTable;
+
+    /**
+     * @brief Set the fit listener
+     *
+     * Install the listener notified by the estimators and by the vector
+     * evaluation methods
+     *
+     * @param fitListener the listener, null to disable the notifications
+     *
+     */
+    public static void setFitListener(FitListener fitListener) {
+
+        listener = fitListener == null ? FitListener.NONE : fitListener;
+
+    }
+
+    /**
+     * @brief Get the fit listener
+     *
+     * @return the installed listener, FitListener.NONE if no listener is
+     * installed
+     *
+     */
+    public static FitListener getFitListener() {
+
+        return listener;
+
+    }
+
     /**
      * @brief Probability density function
      *
@@ -36,6 +70,24 @@ public abstract class ReliabilityDistribution implements Serializable {
      */
     public abstract double random();
 
+    /**
+     * @brief Generate random sample distributed
+     *
+     * Generate random sample distributed as the distribution using the given
+     * generator. Subclasses should override this method; the default
+     * implementation ignores the generator and calls random().
+     *
+     * @param generator random number generator
+     *
+     * @return the random sample
+     *
+     */
+    public double random(Random generator) {
+
+        return random();
+
+    }
+
     /**
      * @brief Probability density function
      *
@@ -49,11 +101,14 @@ public abstract class ReliabilityDistribution implements Serializable {
     public double[] pdf(double[] x) {
 
         double[] val = new double[x.length];
+        long start = startTimer();
 
         for (int i = 0; i < x.length; i++) {
             val[i] = pdf(x[i]);
         }
 
+        bulkEvaluated(x.length, start);
+
         return val;
 
     }
@@ -83,11 +138,14 @@ public abstract class ReliabilityDistribution implements Serializable {
     public double[] cdf(double[] x) {
 
         double[] val = new double[x.length];
+        long start = startTimer();
 
         for (int i = 0; i < x.length; i++) {
             val[i] = cdf(x[i]);
         }
 
+        bulkEvaluated(x.length, start);
+
         return val;
 
     }
@@ -113,11 +171,14 @@ public abstract class ReliabilityDistribution implements Serializable {
         }
 
         double[] val = new double[n];
+        long start = startTimer();
 
         for (int i = 0; i < n; i++) {
             val[i] = random();
         }
 
+        bulkEvaluated(n, start);
+
         return val;
 
     }
@@ -151,11 +212,14 @@ public abstract class ReliabilityDistribution implements Serializable {
     public double[] reliability(double[] x) {
 
         double[] val = new double[x.length];
+        long start = startTimer();
 
         for (int i = 0; i < x.length; i++) {
             val[i] = reliability(x[i]);
         }
 
+        bulkEvaluated(x.length, start);
+
         return val;
 
     }
@@ -195,14 +259,232 @@ public abstract class ReliabilityDistribution implements Serializable {
 
         double[] val = new double[x.length];
 
-        for (int i = 0; i < x.length; i++) {
-            val[i] = conditionalReliability(x[i], X[i]);
-        }
+        conditionalReliability(x, X, val);
 
         return val;
 
     }
 
+    /**
+     * @brief Conditional Reliability function
+     *
+     * Evaluate the conditional reliability function for a vector into a
+     * caller buffer, in parallel over blocks of points.
+     *
+     * @param x vector points
+     * @param X vector ages
+     * @param out output vector, of the same length than x
+     *
+     * @exception IllegalArgumentException vectors must have the same length
+     *
+     */
+    public void conditionalReliability(double[] x, double[] X, double[] out)
+            throws IllegalArgumentException {
+
+        checkLength(x, X);
+        checkLength(x, out);
+
+        long start = startTimer();
+
+        Parallel.forEach(x.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = conditionalReliability(x[i], X[i]);
+            }
+        });
+
+        bulkEvaluated(x.length, start);
+
+    }
+
+    /**
+     * @brief Mean residual life function
+     *
+     * Evaluate the mean residual life, the expected remaining life
+     * E[T - X | T > X] of a unit that survived up to the age X. The default
+     * implementation integrates the reliability function on a table built
+     * once per distribution and cached: the integral of the tail is
+     * interpolated from the table with Simpson's rule on the last interval.
+     * Beyond the table, where the reliability is below 1e-14, the mean
+     * residual life is approximated by 1 / hazard(X); it is NaN where the
+     * hazard can not be evaluated, e.g. when the default hazard divides by a
+     * reliability rounded to 0.0.
+     *
+     * @param X age
+     *
+     * @return the evaluated mean residual life, NaN beyond the table if the
+     * hazard is not finite and greater than 0.0
+     *
+     */
+    public double meanResidualLife(double X) {
+
+        return lifeTable().meanResidualLife(X);
+
+    }
+
+    /**
+     * @brief Mean residual life function
+     *
+     * Evaluate the mean residual life for a vector of ages into a caller
+     * buffer, in parallel over blocks of units
+     *
+     * @param X vector ages
+     * @param out output vector, of the same length than X
+     *
+     * @exception IllegalArgumentException vectors must have the same length
+     *
+     */
+    public void meanResidualLife(double[] X, double[] out)
+            throws IllegalArgumentException {
+
+        checkLength(X, out);
+
+        long start = startTimer();
+
+        lifeTable(); // build the table before the workers share it
+
+        Parallel.forEach(X.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = meanResidualLife(X[i]);
+            }
+        });
+
+        bulkEvaluated(X.length, start);
+
+    }
+
+    /**
+     * @brief Residual life function
+     *
+     * Evaluate the residual life quantile, the time t such that a unit that
+     * survived up to the age X survives up to X + t with probability p, e.g.
+     * p = 0.5 gives the median remaining useful life. The default
+     * implementation solves conditionalReliability(t, X) = p by bisection.
+     *
+     * @param X age
+     * @param p survival probability
+     *
+     * @return the evaluated residual life, NaN if the reliability at X is 0.0
+     *
+     * @exception IllegalArgumentException age must be greater than or equal
+     * to 0.0
+     * @exception IllegalArgumentException probability must be in (0.0, 1.0]
+     *
+     */
+    public double residualLife(double X, double p) throws IllegalArgumentException {
+
+        checkAge(X);
+        checkProbability(p);
+
+        double target = p * reliability(X);
+
+        if (!(target > 0.0)) {
+            return Double.NaN;
+        }
+
+        // bracket the root, then bisect
+        double a = 0.0;
+        double b = Math.max(X, 1.0);
+        while (reliability(X + b) > target && b < Double.MAX_VALUE) {
+            a = b;
+            b *= 2.0;
+        }
+
+        for (int i = 0; i < 200 && b - a > 1e-15 * (X + b); i++) {
+            double m = 0.5 * (a + b);
+            if (reliability(X + m) > target) {
+                a = m;
+            } else {
+                b = m;
+            }
+        }
+
+        return 0.5 * (a + b);
+
+    }
+
+    /**
+     * @brief Residual life function
+     *
+     * Evaluate the residual life quantile for a vector of ages into a caller
+     * buffer, in parallel over blocks of units
+     *
+     * @param X vector ages
+     * @param p survival probability
+     * @param out output vector, of the same length than X
+     *
+     * @exception IllegalArgumentException vectors must have the same length
+     * @exception IllegalArgumentException age must be greater than or equal
+     * to 0.0
+     * @exception IllegalArgumentException probability must be in (0.0, 1.0]
+     *
+     */
+    public void residualLife(double[] X, double p, double[] out)
+            throws IllegalArgumentException {
+
+        checkLength(X, out);
+        checkProbability(p);
+
+        long start = startTimer();
+
+        Parallel.forEach(X.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = residualLife(X[i], p);
+            }
+        });
+
+        bulkEvaluated(X.length, start);
+
+    }
+
+    /**
+     * @brief Mean
+     *
+     * Evaluate the mean, the integral of the reliability function. The
+     * default implementation integrates on the table of meanResidualLife,
+     * built on first use and cached.
+     *
+     * @return the mean
+     *
+     */
+    public double mean() {
+
+        return lifeTable().mean;
+
+    }
+
+    /**
+     * @brief Variance
+     *
+     * Evaluate the variance, 2 times the integral of t * reliability(t) minus
+     * the squared mean. The default implementation integrates on the table of
+     * meanResidualLife, built on first use and cached.
+     *
+     * @return the variance
+     *
+     */
+    public double variance() {
+
+        LifeTable table = lifeTable();
+
+        return table.secondMoment - table.mean * table.mean;
+
+    }
+
+    /**
+     * @brief Mean time to failure
+     *
+     * Evaluate the mean time to failure of a non repairable unit, that is the
+     * mean of the distribution
+     *
+     * @return the mean time to failure
+     *
+     */
+    public double mttf() {
+
+        return mean();
+
+    }
+
     /**
      * @brief Hazard function
      *
@@ -235,13 +517,250 @@ public abstract class ReliabilityDistribution implements Serializable {
     public double[] hazard(double[] x) {
 
         double[] val = new double[x.length];
+        long start = startTimer();
 
         for (int i = 0; i < x.length; i++) {
             val[i] = hazard(x[i]);
         }
 
+        bulkEvaluated(x.length, start);
+
         return val;
 
     }
 
+    /////////////////////
+    // PACKAGE METHODS //
+    /////////////////////
+    /*
+     * Sort the samples in ascending order, failures before censored samples
+     * with the same value; the sorted vectors must have the length of data.
+     * Return the number of censored samples.
+     */
+    static int sort(double[] data, boolean[] censored, double[] sortedData,
+            boolean[] sortedCensored) {
+
+        int n = data.length;
+        int r = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (censored[i] == true) {
+                r++;
+            }
+        }
+
+        // sort failures and censored samples separately, then merge
+        double[] failures = new double[n - r];
+        double[] survivals = new double[r];
+        for (int i = 0, f = 0, c = 0; i < n; i++) {
+            if (censored[i] == false) {
+                failures[f++] = data[i];
+            } else {
+                survivals[c++] = data[i];
+            }
+        }
+        Arrays.sort(failures);
+        Arrays.sort(survivals);
+
+        for (int i = 0, f = 0, c = 0; i < n; i++) {
+            if (c == r || (f < n - r && failures[f] <= survivals[c])) {
+                sortedData[i] = failures[f++];
+                sortedCensored[i] = false;
+            } else {
+                sortedData[i] = survivals[c++];
+                sortedCensored[i] = true;
+            }
+        }
+
+        return r;
+
+    }
+
+    static long startTimer() {
+
+        return listener == FitListener.NONE ? 0L : System.nanoTime();
+
+    }
+
+    static void bulkEvaluated(int size, long start) {
+
+        FitListener l = listener;
+        if (l != FitListener.NONE && start != 0L) {
+            l.bulkEvaluated(size, System.nanoTime() - start);
+        }
+
+    }
+
+    static void fitCompleted(int size, int iterations, long start) {
+
+        FitListener l = listener;
+        if (l != FitListener.NONE && start != 0L) {
+            l.fitCompleted(size, iterations, System.nanoTime() - start);
+        }
+
+    }
+
+    static void fitFailed(int size, int iterations, String reason, long start) {
+
+        FitListener l = listener;
+        if (l != FitListener.NONE && start != 0L) {
+            l.fitFailed(size, iterations, reason, System.nanoTime() - start);
+        }
+
+    }
+
+    static void checkLength(double[] x, double[] out) {
+
+        if (x.length != out.length) {
+            throw new IllegalArgumentException(
+                    "Vectors must have the same length!");
+        }
+
+    }
+
+    static void checkAge(double X) {
+
+        if (!(X >= 0.0)) {
+            throw new IllegalArgumentException(
+                    "Age must be greater than or equal to 0.0!");
+        }
+
+    }
+
+    static void checkProbability(double p) {
+
+        if (!(p > 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "Probability must be in (0.0, 1.0]!");
+        }
+
+    }
+
+    /////////////////////
+    // PRIVATE METHODS //
+    /////////////////////
+    /*
+     * Tail integrals table, built on first use; concurrent first uses may
+     * build it twice, with the same result
+     */
+    private LifeTable lifeTable() {
+
+        LifeTable table = lifeTable;
+        if (table == null) {
+            table = new LifeTable(this);
+            lifeTable = table;
+        }
+
+        return table;
+
+    }
+
+    /**
+     * Integrals of the reliability function from the nodes of a geometric
+     * grid, which spans from cdf below 1e-12 to reliability below 1e-14, to
+     * infinity
+     */
+    private static final class LifeTable {
+
+        private static final int INTERVALS = 4096;
+        private static final double LOWER = 1e-12;
+        private static final double UPPER = 1e-14;
+
+        private final ReliabilityDistribution dist;
+        private final double lo;
+        private final double logLo;
+        private final double logRatio;
+        private final double[] time;
+        private final double[] rel;
+        private final double[] tail;
+        private final double mean;
+        private final double secondMoment;
+
+        LifeTable(ReliabilityDistribution dist) {
+
+            this.dist = dist;
+
+            double hi = 1.0;
+            while (dist.reliability(hi) > UPPER && hi < Double.MAX_VALUE / 2.0) {
+                hi *= 2.0;
+            }
+            double t = hi;
+            while (dist.cdf(t) > LOWER && t > Double.MIN_NORMAL) {
+                t *= 0.5;
+            }
+
+            lo = t;
+            logLo = Math.log(lo);
+            logRatio = (Math.log(hi) - logLo) / INTERVALS;
+
+            time = new double[INTERVALS + 1];
+            rel = new double[INTERVALS + 1];
+            tail = new double[INTERVALS + 1];
+
+            for (int k = 0; k <= INTERVALS; k++) {
+                time[k] = k == INTERVALS ? hi : Math.exp(logLo + k * logRatio);
+                rel[k] = dist.reliability(time[k]);
+            }
+
+            // tail beyond hi by the asymptotic 1 / hazard, then Simpson's rule
+            double h = dist.hazard(hi);
+            double beyond = h > 0.0 ? rel[INTERVALS] / h : 0.0;
+            double moment = 2.0 * hi * beyond;
+            tail[INTERVALS] = beyond;
+            for (int k = INTERVALS - 1; k >= 0; k--) {
+                double a = time[k];
+                double b = time[k + 1];
+                double m = 0.5 * (a + b);
+                double rm = dist.reliability(m);
+                tail[k] = tail[k + 1] + (b - a) / 6.0 * (rel[k] + 4.0 * rm + rel[k + 1]);
+                moment += (b - a) / 3.0 * (a * rel[k] + 4.0 * m * rm + b * rel[k + 1]);
+            }
+
+            // reliability is 1.0 within 1e-12 below lo
+            mean = tail[0] + lo;
+            secondMoment = moment + lo * lo;
+
+        }
+
+        double meanResidualLife(double X) {
+
+            double r = dist.reliability(X);
+
+            if (X <= lo) {
+                // reliability is 1.0 within 1e-12 below lo
+                return (tail[0] + (lo - Math.max(X, 0.0))) / r;
+            }
+
+            int k = (int) ((Math.log(X) - logLo) / logRatio);
+            if (k >= INTERVALS) {
+                return asymptote(X);
+            }
+            k = Math.max(k, 0);
+            if (X > time[k + 1]) {
+                k++; // rounding at the nodes
+            }
+            if (k >= INTERVALS) {
+                return asymptote(X);
+            }
+
+            return (tail[k + 1] + simpson(X, r, time[k + 1], rel[k + 1])) / r;
+
+        }
+
+        private double asymptote(double X) {
+
+            double h = dist.hazard(X);
+
+            return h > 0.0 && h < Double.POSITIVE_INFINITY ? 1.0 / h : Double.NaN;
+
+        }
+
+        private double simpson(double a, double ra, double b, double rb) {
+
+            return (b - a) / 6.0 * (ra + 4.0 * dist.reliability(0.5 * (a + b)) + rb);
+
+        }
+
+    }
+
 }
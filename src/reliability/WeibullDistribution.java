@@ -1,5 +1,10 @@
 package reliability;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.util.Random;
+
 /**
  * Weibull distribution class
  *
@@ -15,6 +20,17 @@ public class WeibullDistribution extends ReliabilityDistribution {
     private double shape;
     private double scale;
 
+    // constants derived from the parameters, see init()
+    private transient double invShape;
+    private transient double invScale;
+    private transient double shapeOverScale;
+    private transient double shapeMinusOne;
+
+    // lazily computed, NaN until first use
+    private transient volatile double logGammaInvShape;
+    private transient volatile double mean;
+    private transient volatile double variance;
+
     /**
      * @brief Weibull distribution default class constructor
      *
@@ -55,6 +71,8 @@ public class WeibullDistribution extends ReliabilityDistribution {
         this.scale = scale;
         this.shape = shape;
 
+        init();
+
     }
 
     /**
@@ -91,8 +109,10 @@ public class WeibullDistribution extends ReliabilityDistribution {
         double val = 0.0;
 
         if (x >= 0.0) {
-            val = shape / scale * Math.pow(x / scale, shape - 1.0)
-                    * Math.exp(-Math.pow(x / scale, shape));
+            // (x / scale)^shape as (x / scale)^(shape - 1) * x / scale
+            double z = x * invScale;
+            double zk1 = Math.pow(z, shapeMinusOne);
+            val = shapeOverScale * zk1 * (x > 0.0 ? Math.exp(-zk1 * z) : 1.0);
         }
 
         return val;
@@ -105,7 +125,27 @@ public class WeibullDistribution extends ReliabilityDistribution {
         double val = 0.0;
 
         if (x > 0.0) {
-            val = 1.0 - Math.exp(-Math.pow(x / scale, shape));
+            val = 1.0 - Math.exp(-Math.pow(x * invScale, shape));
+        }
+
+        return val;
+
+    }
+
+    @Override
+    public double reliability(double x) {
+
+        return Math.exp(-cumulativeHazard(x));
+
+    }
+
+    @Override
+    public double hazard(double x) {
+
+        double val = 0.0;
+
+        if (x >= 0.0) {
+            val = shapeOverScale * Math.pow(x * invScale, shapeMinusOne);
         }
 
         return val;
@@ -115,7 +155,158 @@ public class WeibullDistribution extends ReliabilityDistribution {
     @Override
     public double random() {
 
-        return scale * Math.pow(-Math.log(1.0 - Math.random()), 1.0 / shape);
+        return scale * Math.pow(-Math.log(1.0 - Math.random()), invShape);
+
+    }
+
+    @Override
+    public double random(Random generator) {
+
+        return scale * Math.pow(-Math.log(1.0 - generator.nextDouble()), invShape);
+
+    }
+
+    @Override
+    public double conditionalReliability(double x, double X) {
+
+        return Math.exp(cumulativeHazard(X) - cumulativeHazard(X + x));
+
+    }
+
+    /**
+     * @brief Mean residual life function
+     *
+     * Evaluate the mean residual life in closed form,
+     * scale / shape * exp(w) * Gamma(1 / shape, w) with w = (X / scale)^shape
+     *
+     * @param X age
+     *
+     * @return the evaluated mean residual life
+     *
+     */
+    @Override
+    public double meanResidualLife(double X) {
+
+        return scale * invShape * Gamma.upperScaled(invShape, logGammaInvShape(),
+                cumulativeHazard(X));
+
+    }
+
+    @Override
+    public void meanResidualLife(double[] X, double[] out)
+            throws IllegalArgumentException {
+
+        checkLength(X, out);
+
+        long start = startTimer();
+
+        // constants shared by all the units
+        double a = invShape;
+        double logGammaA = logGammaInvShape();
+        double c = scale * invShape;
+
+        Parallel.forEach(X.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = c * Gamma.upperScaled(a, logGammaA, cumulativeHazard(X[i]));
+            }
+        });
+
+        bulkEvaluated(X.length, start);
+
+    }
+
+    /**
+     * @brief Residual life function
+     *
+     * Evaluate the residual life quantile in closed form,
+     * scale * ((X / scale)^shape - ln(p))^(1 / shape) - X
+     *
+     * @param X age
+     * @param p survival probability
+     *
+     * @return the evaluated residual life
+     *
+     * @exception IllegalArgumentException age must be greater than or equal
+     * to 0.0
+     * @exception IllegalArgumentException probability must be in (0.0, 1.0]
+     *
+     */
+    @Override
+    public double residualLife(double X, double p) throws IllegalArgumentException {
+
+        checkAge(X);
+        checkProbability(p);
+
+        return scale * Math.pow(cumulativeHazard(X) - Math.log(p), invShape) - X;
+
+    }
+
+    @Override
+    public void residualLife(double[] X, double p, double[] out)
+            throws IllegalArgumentException {
+
+        checkLength(X, out);
+        checkProbability(p);
+
+        long start = startTimer();
+
+        // constants shared by all the units
+        double a = invShape;
+        double logp = Math.log(p);
+
+        Parallel.forEach(X.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                checkAge(X[i]);
+                out[i] = scale * Math.pow(cumulativeHazard(X[i]) - logp, a) - X[i];
+            }
+        });
+
+        bulkEvaluated(X.length, start);
+
+    }
+
+    /**
+     * @brief Mean
+     *
+     * Evaluate the mean scale * Gamma(1 + 1 / shape), computed on first use
+     * and cached
+     *
+     * @return the mean
+     *
+     */
+    @Override
+    public double mean() {
+
+        double val = mean;
+        if (Double.isNaN(val)) {
+            val = scale * invShape * Math.exp(logGammaInvShape());
+            mean = val;
+        }
+
+        return val;
+
+    }
+
+    /**
+     * @brief Variance
+     *
+     * Evaluate the variance scale^2 * (Gamma(1 + 2 / shape) - Gamma(1 + 1 /
+     * shape)^2), computed on first use and cached
+     *
+     * @return the variance
+     *
+     */
+    @Override
+    public double variance() {
+
+        double val = variance;
+        if (Double.isNaN(val)) {
+            double m = mean() * invScale;
+            val = scale * scale * (Gamma.gamma(1.0 + 2.0 * invShape) - m * m);
+            variance = val;
+        }
+
+        return val;
 
     }
 
@@ -148,6 +339,7 @@ public class WeibullDistribution extends ReliabilityDistribution {
      * @exception ArithmeticException number of uncensored data must be greater
      * than 0
      * @exception ArithmeticException Newton method did not converge
+     * @exception ArithmeticException Shape parameter estimation error
      * @exception ArithmeticException Scale parameter estimation error
      *
      */
@@ -155,6 +347,46 @@ public class WeibullDistribution extends ReliabilityDistribution {
             int maxIterations, double minTol) throws ArithmeticException,
             IllegalArgumentException {
 
+        return estimate(data, censored, 1.0, maxIterations, minTol);
+
+    }
+
+    /**
+     * @brief Estimate parameters
+     *
+     * Estimate shape and scale parameters given samples data
+     *
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     * @param initialShape starting value of the shape parameter for the
+     * Newton method, e.g. the shape of the rank regression fit
+     * @param maxIterations maximum number of iterations allowed
+     * @param minTol minimum tolerance
+     *
+     * @return return a new Weibull distribution with estimated parameters
+     *
+     * @exception IllegalArgumentException data vector vector can not be null
+     * @exception IllegalArgumentException data vector must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException type vector must be of the same
+     * length than the data vector
+     * @exception IllegalArgumentException maximum number of iterations must be
+     * greater than 0
+     * @exception IllegalArgumentException tolerance must be greater than 0.0
+     * @exception IllegalArgumentException initial shape must be greater than
+     * 0.0
+     * @exception ArithmeticException number of uncensored data must be greater
+     * than 0
+     * @exception ArithmeticException Newton method did not converge
+     * @exception ArithmeticException Shape parameter estimation error
+     * @exception ArithmeticException Scale parameter estimation error
+     *
+     */
+    public static ReliabilityDistribution estimate(double[] data, boolean[] censored,
+            double initialShape, int maxIterations, double minTol)
+            throws ArithmeticException, IllegalArgumentException {
+
         if (data == null) {
             throw new IllegalArgumentException(
                     "Data vector can not be null!");
@@ -178,6 +410,12 @@ public class WeibullDistribution extends ReliabilityDistribution {
             throw new IllegalArgumentException(
                     "Tolerance must be greater than 0.0!");
         }
+        if (!(initialShape > 0.0)) {
+            throw new IllegalArgumentException(
+                    "Initial shape must be greater than 0.0!");
+        }
+
+        long start = startTimer();
 
         int n = data.length;
         int r = 0;
@@ -189,21 +427,27 @@ public class WeibullDistribution extends ReliabilityDistribution {
         }
 
         if (r == n) {
+            fitFailed(n, 0, "Number of uncensored data must be greater than 0!", start);
             throw new ArithmeticException(
                     "Number of uncensored data must be greater than 0!");
         }
 
         boolean conv = false; // convergence check
+        int iterations = 0;
 
-        double beta = 1.0;
+        double beta = initialShape;
 
         // Newton method
         for (int i = 0; i < maxIterations; i++) {
 
             double beta_old = beta;
+            iterations++;
 
-            // Newton method
+            // Newton method, halving the shape when the step overshoots 0.0
             beta = beta - g(data, censored, beta);
+            if (!(beta > 0.0)) {
+                beta = 0.5 * beta_old;
+            }
 
             if (Math.abs(beta - beta_old) / Math.abs(beta_old) <= minTol) {
                 conv = true;
@@ -213,36 +457,28 @@ public class WeibullDistribution extends ReliabilityDistribution {
         }
 
         if (conv == false) {
+            fitFailed(n, iterations, "Newton method did not converge!", start);
             throw new ArithmeticException(
                     "Newton method did not converge!");
         }
 
-        double sum1 = 0.0, sum2 = 0.0;
-        for (int i = 0; i < n; i++) {
-            if (censored[i] == false) {
-                sum1 += Math.pow(data[i], beta);
-            } else {
-                sum2 += Math.pow(data[i], beta);
-            }
-        }
-
-        double alpha;   // estimate the shape value
-        if (r == 0) {
-            alpha = Math.pow(sum1 / (n - r), 1.0 / beta);
-        } else {
-            alpha = Math.pow(sum1 / (n - r) + sum2 / r, 1.0 / beta);
-        }
+        // estimate the scale value
+        double alpha = scale(sufficientSums(data, censored, null, null, beta), beta);
 
-        if (!Double.isFinite(beta)) {
+        if (!Double.isFinite(beta) || beta <= 0.0) {
+            fitFailed(n, iterations, "Shape parameter estimation error!", start);
             throw new ArithmeticException(
                     "Shape parameter estimation error!");
         }
 
         if (!Double.isFinite(alpha)) {
+            fitFailed(n, iterations, "Scale parameter estimation error!", start);
             throw new ArithmeticException(
                     "Scale parameter estimation error!");
         }
 
+        fitCompleted(n, iterations, start);
+
         return new WeibullDistribution(beta, alpha);
 
     }
@@ -269,6 +505,7 @@ public class WeibullDistribution extends ReliabilityDistribution {
      * @exception ArithmeticException number of uncensored data must be greater
      * than 0
      * @exception ArithmeticException Newton method did not converge
+     * @exception ArithmeticException Shape parameter estimation error
      * @exception ArithmeticException Scale parameter estimation error
      *
      */
@@ -298,6 +535,7 @@ public class WeibullDistribution extends ReliabilityDistribution {
      * @exception ArithmeticException number of uncensored data must be greater
      * than 0
      * @exception ArithmeticException Newton method did not converge
+     * @exception ArithmeticException Shape parameter estimation error
      * @exception ArithmeticException Scale parameter estimation error
      *
      */
@@ -337,64 +575,518 @@ public class WeibullDistribution extends ReliabilityDistribution {
 
     }
 
-    /////////////////////
-    // PRIVATE METHODS //
-    /////////////////////
-    private static double g(double[] data, boolean[] censored, double beta) {
+    /**
+     * @brief Weibull probability plot
+     *
+     * Compute the Weibull plot points and the median rank regression fit
+     * given samples data
+     *
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     *
+     * @return the Weibull probability plot
+     *
+     * @exception IllegalArgumentException data vector can not be null
+     * @exception IllegalArgumentException data vector must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException type vector must be of the same
+     * length than the data vector
+     * @exception IllegalArgumentException data must be greater than 0.0
+     * @exception ArithmeticException number of distinct failures must be
+     * greater than 1
+     * @exception ArithmeticException Shape parameter estimation error
+     *
+     */
+    public static WeibullPlot probabilityPlot(double[] data, boolean[] censored) {
 
-        int n = data.length;
-        int r = 0;
+        return new WeibullPlot(data, censored);
 
-        double logt = 0.0; // uncensored
-        double tb = 0.0; // uncensored
-        double tb_c = 0.0; // censored
-        double tblogt = 0.0; // uncensored
-        double tblogt_c = 0.0; // censored
-        double tblog2t = 0.0; // uncensored
-        double tblog2t_c = 0.0; // censored
+    }
+
+    /**
+     * @brief Estimate parameters by rank regression
+     *
+     * Estimate shape and scale parameters given samples data by median rank
+     * regression (Benard's approximation, Johnson's adjusted ranks for
+     * censored data). The fit costs one sort and one linear pass, and its
+     * shape is a good initial shape for the maximum likelihood estimate.
+     *
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     *
+     * @return return a new Weibull distribution with estimated parameters
+     *
+     * @exception IllegalArgumentException data vector can not be null
+     * @exception IllegalArgumentException data vector must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException type vector must be of the same
+     * length than the data vector
+     * @exception IllegalArgumentException data must be greater than 0.0
+     * @exception ArithmeticException number of distinct failures must be
+     * greater than 1
+     * @exception ArithmeticException Shape parameter estimation error
+     *
+     */
+    public static ReliabilityDistribution estimateRankRegression(double[] data,
+            boolean[] censored) throws ArithmeticException, IllegalArgumentException {
+
+        return new WeibullPlot(data, censored).getDistribution();
+
+    }
+
+    /**
+     * @brief Estimate parameters by rank regression
+     *
+     * Estimate shape and scale parameters given uncensored samples data by
+     * median rank regression
+     *
+     * @param data data vector
+     *
+     * @return return a new Weibull distribution with estimated parameters
+     *
+     * @exception IllegalArgumentException data vector can not be null
+     * @exception IllegalArgumentException data vector must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException data must be greater than 0.0
+     * @exception ArithmeticException number of distinct failures must be
+     * greater than 1
+     * @exception ArithmeticException Shape parameter estimation error
+     *
+     */
+    public static ReliabilityDistribution estimateRankRegression(double[] data)
+            throws ArithmeticException, IllegalArgumentException {
+
+        if (data == null) {
+            throw new IllegalArgumentException(
+                    "Data vector can not be null!");
+        }
+
+        return estimateRankRegression(data, new boolean[data.length]);
+
+    }
+
+    /**
+     * @brief Estimate parameters from interval censored data
+     *
+     * Estimate shape and scale parameters given left, right and interval
+     * censored samples. Each sample is known to fail in (lower, upper]:
+     * <ul>
+     * <li>lower == upper: failure observed at that time</li>
+     * <li>lower == 0.0: left censored, failure before upper</li>
+     * <li>upper == +infinity: right censored, still working at lower</li>
+     * <li>otherwise: failure between two inspections</li>
+     * </ul>
+     * The log-likelihood of log(shape) and log(scale), its gradient and its
+     * Hessian are accumulated in parallel over blocks of samples and maximized
+     * by a safeguarded Newton method (step halving, gradient ascent when the
+     * Hessian is not negative definite).
+     *
+     * @param lower lower bounds vector
+     * @param upper upper bounds vector
+     * @param maxIterations maximum number of iterations allowed
+     * @param minTol minimum tolerance
+     *
+     * @return return a new Weibull distribution with estimated parameters
+     *
+     * @exception IllegalArgumentException bounds vectors can not be null
+     * @exception IllegalArgumentException bounds vectors must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException bounds vectors must have the same
+     * length
+     * @exception IllegalArgumentException bounds must satisfy
+     * 0.0 &lt;= lower &lt;= upper and 0.0 &lt; upper
+     * @exception IllegalArgumentException maximum number of iterations must be
+     * greater than 0
+     * @exception IllegalArgumentException tolerance must be greater than 0.0
+     * @exception ArithmeticException number of not right censored data must
+     * be greater than 0
+     * @exception ArithmeticException Newton method did not converge
+     *
+     */
+    public static ReliabilityDistribution estimateInterval(double[] lower,
+            double[] upper, int maxIterations, double minTol)
+            throws ArithmeticException, IllegalArgumentException {
+
+        if (lower == null || upper == null) {
+            throw new IllegalArgumentException(
+                    "Bounds vectors can not be null!");
+        }
+
+        if (lower.length <= 0) {
+            throw new IllegalArgumentException(
+                    "Bounds vectors must be of size greater 0!");
+        }
+
+        if (lower.length != upper.length) {
+            throw new IllegalArgumentException(
+                    "Upper bounds vector must be of the same length than the lower bounds vector!");
+        }
+
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException(
+                    "Maximum number of iterations must be greater than 0!");
+        }
+        if (minTol <= 0.0) {
+            throw new IllegalArgumentException(
+                    "Tolerance must be greater than 0.0!");
+        }
+
+        int n = lower.length;
+        int r = 0;                  // right censored
+        double total = 0.0;         // sum of representative failure times
 
         for (int i = 0; i < n; i++) {
+            if (!(lower[i] >= 0.0 && upper[i] >= lower[i] && upper[i] > 0.0)) {
+                throw new IllegalArgumentException(
+                        "Bounds must satisfy 0.0 <= lower <= upper and 0.0 < upper!");
+            }
+            if (upper[i] == Double.POSITIVE_INFINITY) {
+                r++;
+                total += lower[i];
+            } else {
+                total += lower[i] > 0.0 ? 0.5 * (lower[i] + upper[i]) : 0.5 * upper[i];
+            }
+        }
 
-            double app1 = Math.pow(data[i], beta);
-            double app2 = Math.log(data[i]);
+        long start = startTimer();
 
-            if (censored[i] == false) {
-                tb += app1;
-                logt += app2;
-                tblogt += app1 * app2;
-                tblog2t += app1 * (app2 * app2);
+        if (r == n) {
+            fitFailed(n, 0, "Number of not right censored data must be greater than 0!", start);
+            throw new ArithmeticException(
+                    "Number of not right censored data must be greater than 0!");
+        }
+
+        // exponential start: shape 1, scale from the representative times
+        double[] theta = {0.0, Math.log(total / (n - r))};
+        double[] acc = intervalSums(lower, upper, theta);
+        double[] trial = new double[2];
+
+        boolean conv = false; // convergence check
+        int iterations = 0;
+
+        // safeguarded Newton method
+        while (iterations < maxIterations && conv == false) {
+
+            iterations++;
+
+            double gs = acc[1], gm = acc[2];
+            double hss = acc[3], hsm = acc[4], hmm = acc[5];
+            double det = hss * hmm - hsm * hsm;
+
+            double ds, dm;
+            if (hss < 0.0 && det > 0.0) {
+                ds = -(hmm * gs - hsm * gm) / det;
+                dm = -(hss * gm - hsm * gs) / det;
             } else {
-                ++r;
-                tb_c += app1;
-                tblogt_c += app1 * app2;
-                tblog2t_c += app1 * (app2 * app2);
+                double scale = Math.max(1.0, Math.max(Math.abs(hss), Math.abs(hmm)));
+                ds = gs / scale;
+                dm = gm / scale;
+            }
+
+            double[] next = null;
+            double t = 1.0;
+            for (int h = 0; h <= 30; h++, t *= 0.5) {
+                trial[0] = theta[0] + t * ds;
+                trial[1] = theta[1] + t * dm;
+                double[] candidate = intervalSums(lower, upper, trial);
+                if (candidate[0] >= acc[0]) {
+                    next = candidate;
+                    break;
+                }
+            }
+
+            if (next == null) {
+                break;
+            }
+
+            double delta = Math.max(
+                    Math.abs(trial[0] - theta[0]) / Math.max(1.0, Math.abs(theta[0])),
+                    Math.abs(trial[1] - theta[1]) / Math.max(1.0, Math.abs(theta[1])));
+
+            theta[0] = trial[0];
+            theta[1] = trial[1];
+            acc = next;
+
+            if (delta <= minTol) {
+                conv = true;
             }
 
         }
 
-        double f;
-        double df;
-        if (r == 0) {
+        if (conv == false) {
+            fitFailed(n, iterations, "Newton method did not converge!", start);
+            throw new ArithmeticException(
+                    "Newton method did not converge!");
+        }
+
+        double beta = Math.exp(theta[0]);
+        double alpha = Math.exp(theta[1]);
 
-            f = n / beta + logt - (n * tblogt) / tb;
+        if (!Double.isFinite(beta) || beta <= 0.0) {
+            fitFailed(n, iterations, "Shape parameter estimation error!", start);
+            throw new ArithmeticException(
+                    "Shape parameter estimation error!");
+        }
 
-            df = -(n / (beta * beta))
-                    - ((-(tblogt * tblogt) / (tb * tb))
-                    + (tblog2t / tb));
+        if (!Double.isFinite(alpha) || alpha <= 0.0) {
+            fitFailed(n, iterations, "Scale parameter estimation error!", start);
+            throw new ArithmeticException(
+                    "Scale parameter estimation error!");
+        }
 
-        } else {
+        fitCompleted(n, iterations, start);
 
-            f = (n - r) / beta + logt - ((n - r) * (tblogt + tblogt_c))
-                    / (tb + tb_c);
+        return new WeibullDistribution(beta, alpha);
 
-            df = -((n - r) / (beta * beta))
-                    - ((-((tblogt + tblogt_c) * (tblogt + tblogt_c)) / Math.pow(tb + tb_c, 2.0))
-                    + ((tblog2t + tblog2t_c) / (tb + tb_c)));
+    }
 
+    /**
+     * @brief Estimate parameters from interval censored data
+     *
+     * Estimate shape and scale parameters given left, right and interval
+     * censored samples with the default maximum number of iterations and
+     * tolerance, see estimateInterval(double[], double[], int, double)
+     *
+     * @param lower lower bounds vector
+     * @param upper upper bounds vector
+     *
+     * @return return a new Weibull distribution with estimated parameters
+     *
+     * @exception IllegalArgumentException invalid bounds vectors
+     * @exception ArithmeticException number of not right censored data must
+     * be greater than 0
+     * @exception ArithmeticException Newton method did not converge
+     *
+     */
+    public static ReliabilityDistribution estimateInterval(double[] lower,
+            double[] upper) {
+
+        return estimateInterval(lower, upper, DEFAULT_MAX_ITERATIONS, DEFAULT_MIN_TOL);
+
+    }
+
+    /////////////////////
+    // PRIVATE METHODS //
+    /////////////////////
+    /*
+     * Cumulative hazard (x / scale)^shape, 0.0 for x less than or equal to 0.0
+     */
+    private double cumulativeHazard(double x) {
+
+        return x > 0.0 ? Math.pow(x * invScale, shape) : 0.0;
+
+    }
+
+    /*
+     * Precompute the constants of the hot paths, reset the cached moments
+     */
+    private void init() {
+
+        invShape = 1.0 / shape;
+        invScale = 1.0 / scale;
+        shapeOverScale = shape / scale;
+        shapeMinusOne = shape - 1.0;
+
+        logGammaInvShape = Double.NaN;
+        mean = Double.NaN;
+        variance = Double.NaN;
+
+    }
+
+    private double logGammaInvShape() {
+
+        double val = logGammaInvShape;
+        if (Double.isNaN(val)) {
+            val = Gamma.logGamma(invShape);
+            logGammaInvShape = val;
         }
 
+        return val;
+
+    }
+
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+
+        in.defaultReadObject();
+
+        if (!(shape > 0.0) || !(scale > 0.0)) {
+            throw new InvalidObjectException(
+                    "Shape and scale parameters must be greater than 0.0");
+        }
+
+        init();
+
+    }
+
+    private static double g(double[] data, boolean[] censored, double beta) {
+
+        return newtonStep(sufficientSums(data, censored, null, null, beta), beta);
+
+    }
+
+    /*
+     * Accumulate the interval censored log-likelihood, its gradient and its
+     * Hessian in theta = (log shape, log scale):
+     * acc = [l, g_s, g_m, H_ss, H_sm, H_mm]
+     */
+    private static double[] intervalSums(double[] lower, double[] upper, double[] theta) {
+
+        double s = theta[0];
+        double m = theta[1];
+        double k = Math.exp(s);
+
+        double[] acc = Parallel.sum(lower.length, 6, (from, to, sums) -> {
+
+            for (int i = from; i < to; i++) {
+
+                double lo = lower[i];
+                double up = upper[i];
+
+                if (lo == up) {
+
+                    // exact failure: log pdf
+                    double y = Math.log(lo);
+                    double z = k * (y - m);
+                    double w = Math.exp(z);
+
+                    sums[0] += s + z - w - y;
+                    sums[1] += 1.0 + z * (1.0 - w);
+                    sums[2] += -k * (1.0 - w);
+                    sums[3] += z * (1.0 - w) - w * z * z;
+                    sums[4] += -k * (1.0 - w) + k * w * z;
+                    sums[5] += -k * k * w;
+                    continue;
+
+                }
+
+                // log(S(lower) - S(upper)) = -wL + log(1 - q), q = S(upper) / S(lower)
+                double wL = 0.0, wLs = 0.0, wLm = 0.0, wLss = 0.0, wLsm = 0.0, wLmm = 0.0;
+                if (lo > 0.0) {
+                    double z = k * (Math.log(lo) - m);
+                    wL = Math.exp(z);
+                    wLs = wL * z;
+                    wLm = -k * wL;
+                    wLss = wL * z * (z + 1.0);
+                    wLsm = -k * wL * (z + 1.0);
+                    wLmm = k * k * wL;
+                }
+
+                double q = 0.0, wUs = 0.0, wUm = 0.0, wUss = 0.0, wUsm = 0.0, wUmm = 0.0;
+                double oneMinusQ = 1.0;
+                if (up != Double.POSITIVE_INFINITY) {
+                    double z = k * (Math.log(up) - m);
+                    double wU = Math.exp(z);
+                    q = Math.exp(wL - wU);
+                    oneMinusQ = -Math.expm1(wL - wU);
+                    wUs = wU * z;
+                    wUm = -k * wU;
+                    wUss = wU * z * (z + 1.0);
+                    wUsm = -k * wU * (z + 1.0);
+                    wUmm = k * k * wU;
+                }
+
+                if (!(oneMinusQ > 0.0)) {
+                    // interval too narrow for double precision
+                    sums[0] = Double.NEGATIVE_INFINITY;
+                    continue;
+                }
+
+                double gs = -wLs, gm = -wLm;
+                double hss = wLs * wLs - wLss, hsm = wLs * wLm - wLsm, hmm = wLm * wLm - wLmm;
+                if (q > 0.0) {
+                    gs += q * wUs;
+                    gm += q * wUm;
+                    hss -= q * (wUs * wUs - wUss);
+                    hsm -= q * (wUs * wUm - wUsm);
+                    hmm -= q * (wUm * wUm - wUmm);
+                }
+                gs /= oneMinusQ;
+                gm /= oneMinusQ;
+
+                sums[0] += -wL + Math.log(oneMinusQ);
+                sums[1] += gs;
+                sums[2] += gm;
+                sums[3] += hss / oneMinusQ - gs * gs;
+                sums[4] += hsm / oneMinusQ - gs * gm;
+                sums[5] += hmm / oneMinusQ - gm * gm;
+
+            }
+
+        });
+
+        if (Double.isNaN(acc[0])) {
+            acc[0] = Double.NEGATIVE_INFINITY;
+        }
+
+        return acc;
+
+    }
+
+    /////////////////////
+    // PACKAGE METHODS //
+    /////////////////////
+
+    /*
+     * Weighted sufficient sums of the right censored log-likelihood at shape
+     * beta, accumulated in parallel:
+     * acc = [sum e, sum e log t, sum x t^b, sum x t^b log t, sum x t^b log^2 t]
+     * where e is the event weight (0 for censored samples) and x the exposure
+     * weight of a sample. A null weight vector stands for unit weights.
+     */
+    static double[] sufficientSums(double[] data, boolean[] censored,
+            double[] event, double[] exposure, double beta) {
+
+        return Parallel.sum(data.length, 5, (from, to, acc) -> {
+
+            for (int i = from; i < to; i++) {
+
+                double logt = Math.log(data[i]);
+                double tb = Math.exp(beta * logt);
+                double x = exposure == null ? 1.0 : exposure[i];
+
+                if (censored[i] == false) {
+                    double e = event == null ? 1.0 : event[i];
+                    acc[0] += e;
+                    acc[1] += e * logt;
+                }
+
+                acc[2] += x * tb;
+                acc[3] += x * tb * logt;
+                acc[4] += x * tb * (logt * logt);
+
+            }
+
+        });
+
+    }
+
+    /*
+     * Newton step f / df of the shape likelihood equation
+     * f = E / b + sum e log t - E sum x t^b log t / sum x t^b
+     * given the sufficient sums at shape b
+     */
+    static double newtonStep(double[] acc, double beta) {
+
+        double e = acc[0];
+        double mean = acc[3] / acc[2];
+
+        double f = e / beta + acc[1] - e * mean;
+        double df = -(e / (beta * beta)) - e * (acc[4] / acc[2] - mean * mean);
+
         return f / df;
 
     }
 
+    /*
+     * Scale maximizing the likelihood given the sufficient sums at shape b
+     */
+    static double scale(double[] acc, double beta) {
+
+        return Math.pow(acc[2] / acc[0], 1.0 / beta);
+
+    }
+
 }
@@ -0,0 +1,170 @@
+package reliability;
+
+import java.util.Arrays;
+
+/**
+ * Weibull EM helper class
+ *
+ * Steps shared by the EM estimators of WeibullMixtureDistribution and
+ * CompetingRisksDistribution. The M-step of a component is the maximum
+ * likelihood fit of WeibullDistribution.estimate on the weighted sufficient
+ * sums, run for a few Newton iterations from the current shape.
+ *
+ */
+final class WeibullEM {
+
+    static final int M_STEP_ITERATIONS = 20;
+
+    private WeibullEM() {
+    }
+
+    static void validate(double[] data, boolean[] censored, int count,
+            int maxIterations, double minTol) throws IllegalArgumentException {
+
+        if (data == null) {
+            throw new IllegalArgumentException(
+                    "Data vector can not be null!");
+        }
+
+        if (data.length <= 0) {
+            throw new IllegalArgumentException(
+                    "Data vector must be of size greater 0!");
+        }
+
+        if (censored == null || data.length != censored.length) {
+            throw new IllegalArgumentException(
+                    "Type vector must be of the same length than the data vector!");
+        }
+
+        for (int i = 0; i < data.length; i++) {
+            if (!(data[i] > 0.0)) {
+                throw new IllegalArgumentException(
+                        "Data must be greater than 0.0!");
+            }
+        }
+
+        if (count <= 0) {
+            throw new IllegalArgumentException(
+                    "Number of components must be greater than 0!");
+        }
+
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException(
+                    "Maximum number of iterations must be greater than 0!");
+        }
+        if (minTol <= 0.0) {
+            throw new IllegalArgumentException(
+                    "Tolerance must be greater than 0.0!");
+        }
+
+    }
+
+    /*
+     * Sorted failure times; there must be more distinct failures than
+     * components
+     */
+    static double[] failures(double[] data, boolean[] censored, int count, long start)
+            throws ArithmeticException {
+
+        int m = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (censored[i] == false) {
+                m++;
+            }
+        }
+
+        double[] failures = new double[m];
+        for (int i = 0, f = 0; i < data.length; i++) {
+            if (censored[i] == false) {
+                failures[f++] = data[i];
+            }
+        }
+        Arrays.sort(failures);
+
+        int distinct = m > 0 ? 1 : 0;
+        for (int i = 1; i < m; i++) {
+            if (failures[i] != failures[i - 1]) {
+                distinct++;
+            }
+        }
+
+        if (distinct <= count) {
+            ReliabilityDistribution.fitFailed(data.length, 0,
+                    "Number of distinct uncensored data must be greater than the number of components!", start);
+            throw new ArithmeticException(
+                    "Number of distinct uncensored data must be greater than the number of components!");
+        }
+
+        return failures;
+
+    }
+
+    /*
+     * Fit the component j on the weighted sufficient sums, updating its shape
+     * and scale; return the total event weight of the component
+     */
+    static double mStep(double[] data, boolean[] censored, double[] event,
+            double[] exposure, double[] shapes, double[] scales, int j, double minTol) {
+
+        double beta = shapes[j];
+        double[] acc = WeibullDistribution.sufficientSums(data, censored, event, exposure, beta);
+
+        for (int it = 0; it < M_STEP_ITERATIONS && acc[0] > 0.0; it++) {
+
+            double beta_old = beta;
+
+            beta = beta - WeibullDistribution.newtonStep(acc, beta);
+            if (!(beta > 0.0)) {
+                beta = 0.5 * beta_old;
+            }
+
+            acc = WeibullDistribution.sufficientSums(data, censored, event, exposure, beta);
+
+            if (Math.abs(beta - beta_old) / beta_old <= minTol) {
+                break;
+            }
+
+        }
+
+        shapes[j] = beta;
+        scales[j] = WeibullDistribution.scale(acc, beta);
+
+        return acc[0];
+
+    }
+
+    /*
+     * Sort the components by scale; weights may be null
+     */
+    static WeibullDistribution[] components(double[] weights, double[] shapes, double[] scales) {
+
+        int count = shapes.length;
+
+        for (int j = 1; j < count; j++) {
+            for (int l = j; l > 0 && scales[l] < scales[l - 1]; l--) {
+                swap(scales, l);
+                swap(shapes, l);
+                if (weights != null) {
+                    swap(weights, l);
+                }
+            }
+        }
+
+        WeibullDistribution[] val = new WeibullDistribution[count];
+        for (int j = 0; j < count; j++) {
+            val[j] = new WeibullDistribution(shapes[j], scales[j]);
+        }
+
+        return val;
+
+    }
+
+    private static void swap(double[] v, int l) {
+
+        double tmp = v[l];
+        v[l] = v[l - 1];
+        v[l - 1] = tmp;
+
+    }
+
+}
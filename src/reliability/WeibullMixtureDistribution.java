@@ -0,0 +1,423 @@
+package reliability;
+
+import java.util.Random;
+
+/**
+ * Weibull mixture distribution class
+ *
+ * Finite mixture of Weibull distributions: a unit belongs to the component j
+ * with probability w_j and then fails as the j-th Weibull distribution, e.g.
+ * an infant mortality subpopulation mixed with a wear-out one.
+ *
+ */
+public class WeibullMixtureDistribution extends ReliabilityDistribution {
+
+    private static final long serialVersionUID = -2158374059417623605L;
+
+    private static int DEFAULT_MAX_ITERATIONS = 1000;
+    private static double DEFAULT_MIN_TOL = 1e-8;
+
+    private final double[] weights;
+    private final WeibullDistribution[] components;
+
+    /**
+     * @brief Weibull mixture distribution class constructor
+     *
+     * Weibull mixture distribution class constructor. The weights are
+     * normalized to sum 1.0.
+     *
+     * @param weights mixing weights
+     * @param components mixture components
+     *
+     * @exception IllegalArgumentException weights and components vectors
+     * must have the same size greater than 0
+     * @exception IllegalArgumentException weights must be greater than or
+     * equal to 0.0 and not all 0.0
+     * @exception IllegalArgumentException components can not be null
+     *
+     */
+    public WeibullMixtureDistribution(double[] weights, WeibullDistribution[] components)
+            throws IllegalArgumentException {
+
+        if (weights == null || components == null || weights.length <= 0
+                || weights.length != components.length) {
+            throw new IllegalArgumentException(
+                    "Weights and components vectors must have the same size greater 0!");
+        }
+
+        double sum = 0.0;
+        for (int j = 0; j < weights.length; j++) {
+            if (!(weights[j] >= 0.0) || weights[j] == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException(
+                        "Weights must be greater than or equal to 0.0!");
+            }
+            if (components[j] == null) {
+                throw new IllegalArgumentException(
+                        "Components can not be null!");
+            }
+            sum += weights[j];
+        }
+
+        if (sum <= 0.0) {
+            throw new IllegalArgumentException(
+                    "Weights sum must be greater than 0.0!");
+        }
+
+        this.weights = new double[weights.length];
+        for (int j = 0; j < weights.length; j++) {
+            this.weights[j] = weights[j] / sum;
+        }
+        this.components = components.clone();
+
+    }
+
+    /**
+     * @brief Get mixing weights
+     *
+     * @return a copy of the mixing weights
+     *
+     */
+    public double[] getWeights() {
+
+        return weights.clone();
+
+    }
+
+    /**
+     * @brief Get mixture components
+     *
+     * @return a copy of the components vector
+     *
+     */
+    public WeibullDistribution[] getComponents() {
+
+        return components.clone();
+
+    }
+
+    @Override
+    public double pdf(double x) {
+
+        double val = 0.0;
+        for (int j = 0; j < components.length; j++) {
+            val += weights[j] * components[j].pdf(x);
+        }
+
+        return val;
+
+    }
+
+    @Override
+    public double cdf(double x) {
+
+        double val = 0.0;
+        for (int j = 0; j < components.length; j++) {
+            val += weights[j] * components[j].cdf(x);
+        }
+
+        return val;
+
+    }
+
+    @Override
+    public double reliability(double x) {
+
+        double val = 0.0;
+        for (int j = 0; j < components.length; j++) {
+            val += weights[j] * components[j].reliability(x);
+        }
+
+        return val;
+
+    }
+
+    /**
+     * @brief Mean
+     *
+     * Evaluate the mean as the weighted mean of the components means
+     *
+     * @return the mean
+     *
+     */
+    @Override
+    public double mean() {
+
+        double val = 0.0;
+        for (int j = 0; j < components.length; j++) {
+            val += weights[j] * components[j].mean();
+        }
+
+        return val;
+
+    }
+
+    /**
+     * @brief Variance
+     *
+     * Evaluate the variance from the weighted second moments of the
+     * components
+     *
+     * @return the variance
+     *
+     */
+    @Override
+    public double variance() {
+
+        double m = 0.0;
+        double m2 = 0.0;
+        for (int j = 0; j < components.length; j++) {
+            double mj = components[j].mean();
+            m += weights[j] * mj;
+            m2 += weights[j] * (components[j].variance() + mj * mj);
+        }
+
+        return m2 - m * m;
+
+    }
+
+    @Override
+    public double random() {
+
+        return components[select(Math.random())].random();
+
+    }
+
+    @Override
+    public double random(Random generator) {
+
+        return components[select(generator.nextDouble())].random(generator);
+
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder("Weibull Mixture Distribution {");
+        for (int j = 0; j < components.length; j++) {
+            sb.append("\n\tweight = ").append(weights[j])
+                    .append(", shape = ").append(components[j].getShape())
+                    .append(", scale = ").append(components[j].getScale());
+        }
+
+        return sb.append("\n}").toString();
+
+    }
+
+    /**
+     * @brief Estimate parameters
+     *
+     * Estimate weights, shapes and scales of a Weibull mixture given samples
+     * data by the EM algorithm. The E-step computes the responsibilities of
+     * the components into reusable buffers, the M-step fits each component
+     * with a few Newton iterations on the responsibility weighted sufficient
+     * sums of WeibullDistribution.estimate. Both steps run in parallel over
+     * blocks of samples. The components are started from the quantile groups
+     * of the failures.
+     *
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     * @param count number of components
+     * @param maxIterations maximum number of EM iterations allowed
+     * @param minTol minimum relative tolerance on the log-likelihood
+     *
+     * @return return a new Weibull mixture distribution with estimated
+     * parameters, components sorted by scale
+     *
+     * @exception IllegalArgumentException data vector vector can not be null
+     * @exception IllegalArgumentException data vector must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException type vector must be of the same
+     * length than the data vector
+     * @exception IllegalArgumentException data must be greater than 0.0
+     * @exception IllegalArgumentException number of components must be
+     * greater than 0
+     * @exception IllegalArgumentException maximum number of iterations must be
+     * greater than 0
+     * @exception IllegalArgumentException tolerance must be greater than 0.0
+     * @exception ArithmeticException number of distinct uncensored data must
+     * be greater than the number of components
+     * @exception ArithmeticException EM algorithm did not converge
+     * @exception ArithmeticException mixture component estimation error
+     *
+     */
+    public static WeibullMixtureDistribution estimate(double[] data, boolean[] censored,
+            int count, int maxIterations, double minTol)
+            throws ArithmeticException, IllegalArgumentException {
+
+        WeibullEM.validate(data, censored, count, maxIterations, minTol);
+
+        int n = data.length;
+        long start = startTimer();
+
+        // start from the quantile groups of the failures
+        double[] failures = WeibullEM.failures(data, censored, count, start);
+        double[] weights = new double[count];
+        double[] shapes = new double[count];
+        double[] scales = new double[count];
+        for (int j = 0; j < count; j++) {
+            int from = j * failures.length / count;
+            int to = (j + 1) * failures.length / count;
+            double sum = 0.0;
+            for (int i = from; i < to; i++) {
+                sum += failures[i];
+            }
+            weights[j] = 1.0 / count;
+            shapes[j] = 2.0;
+            scales[j] = sum / (to - from);
+        }
+
+        double[][] resp = new double[count][n];
+
+        double ll = Double.NEGATIVE_INFINITY;
+        boolean conv = false; // convergence check
+        int iterations = 0;
+
+        while (iterations < maxIterations && conv == false) {
+
+            iterations++;
+
+            // E-step
+            double llOld = ll;
+            double[] sums = eStep(data, censored, weights, shapes, scales, resp);
+            ll = sums[0];
+
+            if (!Double.isFinite(ll)) {
+                fitFailed(n, iterations, "Mixture component estimation error!", start);
+                throw new ArithmeticException(
+                        "Mixture component estimation error!");
+            }
+
+            // M-step
+            for (int j = 0; j < count; j++) {
+                weights[j] = sums[1 + j] / n;
+                double events = WeibullEM.mStep(data, censored, resp[j], resp[j],
+                        shapes, scales, j, minTol);
+                if (!(events > 0.0) || !(scales[j] > 0.0) || !Double.isFinite(scales[j])) {
+                    fitFailed(n, iterations, "Mixture component estimation error!", start);
+                    throw new ArithmeticException(
+                            "Mixture component estimation error!");
+                }
+            }
+
+            if (Math.abs(ll - llOld) <= minTol * Math.abs(ll)) {
+                conv = true;
+            }
+
+        }
+
+        if (conv == false) {
+            fitFailed(n, iterations, "EM algorithm did not converge!", start);
+            throw new ArithmeticException(
+                    "EM algorithm did not converge!");
+        }
+
+        fitCompleted(n, iterations, start);
+
+        WeibullDistribution[] components = WeibullEM.components(weights, shapes, scales);
+
+        return new WeibullMixtureDistribution(weights, components);
+
+    }
+
+    /**
+     * @brief Estimate parameters
+     *
+     * Estimate a Weibull mixture given samples data with the default maximum
+     * number of iterations and tolerance
+     *
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     * @param count number of components
+     *
+     * @return return a new Weibull mixture distribution with estimated
+     * parameters
+     *
+     * @exception IllegalArgumentException invalid arguments, see
+     * estimate(double[], boolean[], int, int, double)
+     * @exception ArithmeticException EM algorithm did not converge
+     * @exception ArithmeticException mixture component estimation error
+     *
+     */
+    public static WeibullMixtureDistribution estimate(double[] data, boolean[] censored,
+            int count) {
+
+        return estimate(data, censored, count, DEFAULT_MAX_ITERATIONS, DEFAULT_MIN_TOL);
+
+    }
+
+    /////////////////////
+    // PRIVATE METHODS //
+    /////////////////////
+    private int select(double u) {
+
+        double sum = 0.0;
+        for (int j = 0; j < weights.length - 1; j++) {
+            sum += weights[j];
+            if (u < sum) {
+                return j;
+            }
+        }
+
+        return weights.length - 1;
+
+    }
+
+    /*
+     * Write the responsibilities of the components; return the
+     * log-likelihood of the mixture followed by the responsibility sums
+     */
+    private static double[] eStep(double[] data, boolean[] censored, double[] weights,
+            double[] shapes, double[] scales, double[][] resp) {
+
+        int count = weights.length;
+
+        double[] logWeights = new double[count];
+        double[] logShapes = new double[count];
+        double[] logScales = new double[count];
+        for (int j = 0; j < count; j++) {
+            logWeights[j] = Math.log(weights[j]);
+            logShapes[j] = Math.log(shapes[j]);
+            logScales[j] = Math.log(scales[j]);
+        }
+
+        return Parallel.sum(data.length, 1 + count, (from, to, acc) -> {
+
+            for (int i = from; i < to; i++) {
+
+                double logt = Math.log(data[i]);
+                double max = Double.NEGATIVE_INFINITY;
+
+                // log of weight * (pdf or reliability), in resp as scratch
+                for (int j = 0; j < count; j++) {
+                    double z = shapes[j] * (logt - logScales[j]);
+                    double val = logWeights[j] - Math.exp(z);
+                    if (censored[i] == false) {
+                        val += logShapes[j] - logt + z;
+                    }
+                    resp[j][i] = val;
+                    max = Math.max(max, val);
+                }
+
+                double sum = 0.0;
+                for (int j = 0; j < count; j++) {
+                    double val = Math.exp(resp[j][i] - max);
+                    resp[j][i] = val;
+                    sum += val;
+                }
+
+                for (int j = 0; j < count; j++) {
+                    resp[j][i] /= sum;
+                    acc[1 + j] += resp[j][i];
+                }
+
+                acc[0] += max + Math.log(sum);
+
+            }
+
+        });
+
+    }
+
+}
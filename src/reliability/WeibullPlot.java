@@ -0,0 +1,220 @@
+package reliability;
+
+/**
+ * Weibull probability plot class
+ *
+ * Weibull plot coordinates of the failures and the median rank regression
+ * fit. Failures are plotted at their Johnson's adjusted ranks, which account
+ * for the right censored samples, converted to median ranks with Benard's
+ * approximation F = (rank - 0.3) / (n + 0.4). The coordinates are
+ * x = ln(t) and y = ln(-ln(1 - F)); the regression of y on x gives
+ * y = shape * x - shape * ln(scale).
+ *
+ * The samples are sorted once and both the plot points and the regression
+ * sums are computed in a single linear pass.
+ *
+ */
+public class WeibullPlot {
+
+    private final double[] time;
+    private final double[] rank;
+    private final double[] x;
+    private final double[] y;
+    private final WeibullDistribution distribution;
+    private final double correlation;
+
+    /**
+     * @brief Weibull probability plot class constructor
+     *
+     * Compute the plot points and the rank regression fit
+     *
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     *
+     * @exception IllegalArgumentException data vector can not be null
+     * @exception IllegalArgumentException data vector must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException type vector must be of the same
+     * length than the data vector
+     * @exception IllegalArgumentException data must be greater than 0.0
+     * @exception ArithmeticException number of distinct failures must be
+     * greater than 1
+     * @exception ArithmeticException Shape parameter estimation error
+     *
+     */
+    public WeibullPlot(double[] data, boolean[] censored)
+            throws ArithmeticException, IllegalArgumentException {
+
+        if (data == null) {
+            throw new IllegalArgumentException(
+                    "Data vector can not be null!");
+        }
+
+        if (data.length <= 0) {
+            throw new IllegalArgumentException(
+                    "Data vector must be of size greater 0!");
+        }
+
+        if (censored == null || data.length != censored.length) {
+            throw new IllegalArgumentException(
+                    "Type vector must be of the same length than the data vector!");
+        }
+
+        int n = data.length;
+
+        double[] sortedData = new double[n];
+        boolean[] sortedCensored = new boolean[n];
+        int r = ReliabilityDistribution.sort(data, censored, sortedData, sortedCensored);
+
+        if (!(sortedData[0] > 0.0)) {
+            throw new IllegalArgumentException(
+                    "Data must be greater than 0.0!");
+        }
+
+        long start = ReliabilityDistribution.startTimer();
+
+        time = new double[n - r];
+        rank = new double[n - r];
+        x = new double[n - r];
+        y = new double[n - r];
+
+        double sx = 0.0, sy = 0.0, sxx = 0.0, sxy = 0.0, syy = 0.0;
+        double order = 0.0; // Johnson's adjusted rank
+
+        for (int i = 0, f = 0; i < n; i++) {
+
+            if (sortedCensored[i] == true) {
+                continue;
+            }
+
+            order += (n + 1.0 - order) / (1.0 + (n - i));
+
+            double F = (order - 0.3) / (n + 0.4);
+            double xi = Math.log(sortedData[i]);
+            double yi = Math.log(-Math.log1p(-F));
+
+            time[f] = sortedData[i];
+            rank[f] = F;
+            x[f] = xi;
+            y[f] = yi;
+            f++;
+
+            sx += xi;
+            sy += yi;
+            sxx += xi * xi;
+            sxy += xi * yi;
+            syy += yi * yi;
+
+        }
+
+        int m = n - r;
+        double cxx = sxx - sx * sx / m;
+        double cxy = sxy - sx * sy / m;
+        double cyy = syy - sy * sy / m;
+
+        if (m < 2 || !(cxx > 0.0)) {
+            ReliabilityDistribution.fitFailed(n, 0,
+                    "Number of distinct failures must be greater than 1!", start);
+            throw new ArithmeticException(
+                    "Number of distinct failures must be greater than 1!");
+        }
+
+        double shape = cxy / cxx;
+        double intercept = (sy - shape * sx) / m;
+
+        if (!Double.isFinite(shape) || shape <= 0.0) {
+            ReliabilityDistribution.fitFailed(n, 0, "Shape parameter estimation error!", start);
+            throw new ArithmeticException(
+                    "Shape parameter estimation error!");
+        }
+
+        double scale = Math.exp(-intercept / shape);
+
+        if (!Double.isFinite(scale) || scale <= 0.0) {
+            ReliabilityDistribution.fitFailed(n, 0, "Scale parameter estimation error!", start);
+            throw new ArithmeticException(
+                    "Scale parameter estimation error!");
+        }
+
+        ReliabilityDistribution.fitCompleted(n, 0, start);
+
+        distribution = new WeibullDistribution(shape, scale);
+        correlation = cyy > 0.0 ? cxy / Math.sqrt(cxx * cyy) : 1.0;
+
+    }
+
+    /**
+     * @brief Get failure times
+     *
+     * @return the failure times in ascending order
+     *
+     */
+    public double[] getTime() {
+
+        return time.clone();
+
+    }
+
+    /**
+     * @brief Get median ranks
+     *
+     * @return the median ranks (Benard's approximation of the adjusted ranks)
+     * of the failures
+     *
+     */
+    public double[] getMedianRank() {
+
+        return rank.clone();
+
+    }
+
+    /**
+     * @brief Get plot abscissae
+     *
+     * @return ln(t) of the failures
+     *
+     */
+    public double[] getX() {
+
+        return x.clone();
+
+    }
+
+    /**
+     * @brief Get plot ordinates
+     *
+     * @return ln(-ln(1 - F)) of the failures
+     *
+     */
+    public double[] getY() {
+
+        return y.clone();
+
+    }
+
+    /**
+     * @brief Get fitted distribution
+     *
+     * @return the rank regression fit
+     *
+     */
+    public WeibullDistribution getDistribution() {
+
+        return distribution;
+
+    }
+
+    /**
+     * @brief Get correlation coefficient
+     *
+     * @return the correlation coefficient of the plot points
+     *
+     */
+    public double getCorrelation() {
+
+        return correlation;
+
+    }
+
+}
@@ -0,0 +1,501 @@
+package reliability;
+
+import java.io.Serializable;
+
+/**
+ * Weibull regression class
+ *
+ * Accelerated failure time Weibull model: the shape parameter is common to
+ * all the units while the scale parameter of a unit depends on its
+ * covariates x as scale = exp(x' b). Add a column of ones to the design
+ * matrix to fit an intercept.
+ *
+ */
+public class WeibullRegression implements Serializable {
+
+    private static final long serialVersionUID = -4807468211722271943L;
+
+    private static int DEFAULT_MAX_ITERATIONS = 100;
+    private static double DEFAULT_MIN_TOL = 1e-8;
+    private static int MAX_STEP_HALVINGS = 30;
+
+    private final double[] coefficients;
+    private final double shape;
+    private final double logLikelihood;
+
+    /**
+     * @brief Weibull regression class constructor
+     *
+     * Weibull regression class constructor
+     *
+     * @param coefficients regression coefficients of the log scale
+     * @param shape shape parameter
+     *
+     * @exception IllegalArgumentException coefficients vector can not be null
+     * or empty
+     * @exception IllegalArgumentException the shape parameter is less than 0.0
+     *
+     */
+    public WeibullRegression(double[] coefficients, double shape)
+            throws IllegalArgumentException {
+
+        this(coefficients, shape, Double.NaN);
+
+    }
+
+    private WeibullRegression(double[] coefficients, double shape, double logLikelihood) {
+
+        if (coefficients == null || coefficients.length <= 0) {
+            throw new IllegalArgumentException(
+                    "Coefficients vector must be of size greater 0!");
+        }
+        if (shape <= 0.0) {
+            throw new IllegalArgumentException(
+                    "Shape parameter must be greater than 0.0");
+        }
+
+        this.coefficients = coefficients.clone();
+        this.shape = shape;
+        this.logLikelihood = logLikelihood;
+
+    }
+
+    /**
+     * @brief Get regression coefficients
+     *
+     * @return a copy of the regression coefficients of the log scale
+     *
+     */
+    public double[] getCoefficients() {
+
+        return coefficients.clone();
+
+    }
+
+    /**
+     * @brief Get shape parameter
+     *
+     * @return shape parameter
+     *
+     */
+    public double getShape() {
+
+        return shape;
+
+    }
+
+    /**
+     * @brief Get log-likelihood
+     *
+     * @return the maximized log-likelihood, NaN if the model was not
+     * estimated
+     *
+     */
+    public double getLogLikelihood() {
+
+        return logLikelihood;
+
+    }
+
+    /**
+     * @brief Scale parameter
+     *
+     * Evaluate the scale parameter of a unit
+     *
+     * @param covariates covariates of the unit
+     *
+     * @return the scale parameter
+     *
+     * @exception IllegalArgumentException covariates vector must have the
+     * same length than the coefficients vector
+     *
+     */
+    public double scale(double[] covariates) {
+
+        if (covariates == null || covariates.length != coefficients.length) {
+            throw new IllegalArgumentException(
+                    "Covariates vector must be of the same length than the coefficients vector!");
+        }
+
+        double eta = 0.0;
+        for (int j = 0; j < coefficients.length; j++) {
+            eta += coefficients[j] * covariates[j];
+        }
+
+        return Math.exp(eta);
+
+    }
+
+    /**
+     * @brief Distribution of a unit
+     *
+     * @param covariates covariates of the unit
+     *
+     * @return the Weibull distribution of the unit
+     *
+     * @exception IllegalArgumentException covariates vector must have the
+     * same length than the coefficients vector
+     *
+     */
+    public WeibullDistribution distribution(double[] covariates) {
+
+        return new WeibullDistribution(shape, scale(covariates));
+
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder("Weibull Regression {\n\tshape = ");
+        sb.append(shape);
+        for (int j = 0; j < coefficients.length; j++) {
+            sb.append("\n\tb").append(j).append(" = ").append(coefficients[j]);
+        }
+
+        return sb.append("\n}").toString();
+
+    }
+
+    /**
+     * @brief Estimate parameters
+     *
+     * Estimate the regression coefficients and the shape parameter by
+     * maximum likelihood. The log-likelihood, its gradient and its Hessian
+     * are accumulated in parallel over blocks of rows, and maximized by a
+     * Newton method with step halving started from the least squares fit of
+     * the log data.
+     *
+     * @param design design matrix, row-major, one row per sample
+     * @param columns number of columns of the design matrix
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     * @param maxIterations maximum number of iterations allowed
+     * @param minTol minimum tolerance
+     *
+     * @return return a new Weibull regression with estimated parameters
+     *
+     * @exception IllegalArgumentException data vector vector can not be null
+     * @exception IllegalArgumentException data vector must have number of
+     * elements greater than 0
+     * @exception IllegalArgumentException type vector must be of the same
+     * length than the data vector
+     * @exception IllegalArgumentException design matrix must have one row per
+     * sample
+     * @exception IllegalArgumentException data must be greater than 0.0
+     * @exception IllegalArgumentException maximum number of iterations must be
+     * greater than 0
+     * @exception IllegalArgumentException tolerance must be greater than 0.0
+     * @exception ArithmeticException number of uncensored data must be greater
+     * than 0
+     * @exception ArithmeticException design matrix is singular
+     * @exception ArithmeticException Newton method did not converge
+     *
+     */
+    public static WeibullRegression estimate(double[] design, int columns,
+            double[] data, boolean[] censored, int maxIterations, double minTol)
+            throws ArithmeticException, IllegalArgumentException {
+
+        if (data == null) {
+            throw new IllegalArgumentException(
+                    "Data vector can not be null!");
+        }
+
+        if (data.length <= 0) {
+            throw new IllegalArgumentException(
+                    "Data vector must be of size greater 0!");
+        }
+
+        if (censored == null || data.length != censored.length) {
+            throw new IllegalArgumentException(
+                    "Type vector must be of the same length than the data vector!");
+        }
+
+        if (design == null || columns <= 0
+                || (long) data.length * columns != design.length) {
+            throw new IllegalArgumentException(
+                    "Design matrix must have one row of " + columns + " columns per sample!");
+        }
+
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException(
+                    "Maximum number of iterations must be greater than 0!");
+        }
+        if (minTol <= 0.0) {
+            throw new IllegalArgumentException(
+                    "Tolerance must be greater than 0.0!");
+        }
+
+        int n = data.length;
+        int r = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (!(data[i] > 0.0)) {
+                throw new IllegalArgumentException(
+                        "Data must be greater than 0.0!");
+            }
+            if (censored[i] == true) {
+                r++;
+            }
+        }
+
+        long start = ReliabilityDistribution.startTimer();
+
+        if (r == n) {
+            ReliabilityDistribution.fitFailed(n, 0,
+                    "Number of uncensored data must be greater than 0!", start);
+            throw new ArithmeticException(
+                    "Number of uncensored data must be greater than 0!");
+        }
+
+        int p = columns;
+        int m = p + 1;
+
+        // least squares start for the coefficients, unit shape
+        double[] theta = new double[m];
+        double[] normal = Parallel.sum(n, p * p + p, (from, to, acc) -> {
+            for (int i = from; i < to; i++) {
+                int row = i * p;
+                double y = Math.log(data[i]);
+                for (int j = 0; j < p; j++) {
+                    double xj = design[row + j];
+                    acc[p * p + j] += xj * y;
+                    for (int l = j; l < p; l++) {
+                        acc[j * p + l] += xj * design[row + l];
+                    }
+                }
+            }
+        });
+        if (!solve(normal, normal, p, p * p, theta)) {
+            ReliabilityDistribution.fitFailed(n, 0, "Design matrix is singular!", start);
+            throw new ArithmeticException(
+                    "Design matrix is singular!");
+        }
+
+        double[] acc = accumulate(design, p, data, censored, theta);
+        double[] step = new double[m];
+        double[] trial = new double[m];
+
+        boolean conv = false; // convergence check
+        int iterations = 0;
+
+        // Newton method
+        while (iterations < maxIterations && conv == false) {
+
+            iterations++;
+
+            // Newton direction: (-H) step = gradient
+            double[] hessian = new double[m * m];
+            for (int j = 0; j < m * m; j++) {
+                hessian[j] = -acc[1 + m + j];
+            }
+            if (!solve(acc, hessian, m, 1, step)) {
+                // not a maximum yet: fall back to steepest ascent
+                System.arraycopy(acc, 1, step, 0, m);
+            }
+
+            double t = 1.0;
+            double[] next = null;
+            for (int h = 0; h <= MAX_STEP_HALVINGS; h++, t *= 0.5) {
+                for (int j = 0; j < m; j++) {
+                    trial[j] = theta[j] + t * step[j];
+                }
+                double[] candidate = accumulate(design, p, data, censored, trial);
+                if (candidate[0] >= acc[0]) {
+                    next = candidate;
+                    break;
+                }
+            }
+
+            if (next == null) {
+                break;
+            }
+
+            double delta = 0.0;
+            for (int j = 0; j < m; j++) {
+                delta = Math.max(delta, Math.abs(trial[j] - theta[j])
+                        / Math.max(1.0, Math.abs(theta[j])));
+            }
+
+            System.arraycopy(trial, 0, theta, 0, m);
+            acc = next;
+
+            if (delta <= minTol) {
+                conv = true;
+            }
+
+        }
+
+        if (conv == false) {
+            ReliabilityDistribution.fitFailed(n, iterations, "Newton method did not converge!", start);
+            throw new ArithmeticException(
+                    "Newton method did not converge!");
+        }
+
+        double shape = Math.exp(theta[p]);
+        if (!Double.isFinite(shape) || shape <= 0.0) {
+            ReliabilityDistribution.fitFailed(n, iterations, "Shape parameter estimation error!", start);
+            throw new ArithmeticException(
+                    "Shape parameter estimation error!");
+        }
+
+        ReliabilityDistribution.fitCompleted(n, iterations, start);
+
+        double[] coefficients = new double[p];
+        System.arraycopy(theta, 0, coefficients, 0, p);
+
+        return new WeibullRegression(coefficients, shape, acc[0]);
+
+    }
+
+    /**
+     * @brief Estimate parameters
+     *
+     * Estimate the regression coefficients and the shape parameter with the
+     * default maximum number of iterations and tolerance
+     *
+     * @param design design matrix, row-major, one row per sample
+     * @param columns number of columns of the design matrix
+     * @param data data vector
+     * @param censored censoring vector, each element is true if the sample is
+     * right censored, false otherwise.
+     *
+     * @return return a new Weibull regression with estimated parameters
+     *
+     * @exception IllegalArgumentException invalid arguments, see
+     * estimate(double[], int, double[], boolean[], int, double)
+     * @exception ArithmeticException number of uncensored data must be greater
+     * than 0
+     * @exception ArithmeticException design matrix is singular
+     * @exception ArithmeticException Newton method did not converge
+     *
+     */
+    public static WeibullRegression estimate(double[] design, int columns,
+            double[] data, boolean[] censored) {
+
+        return estimate(design, columns, data, censored, DEFAULT_MAX_ITERATIONS, DEFAULT_MIN_TOL);
+
+    }
+
+    /////////////////////
+    // PRIVATE METHODS //
+    /////////////////////
+
+    /*
+     * Accumulate log-likelihood, gradient and Hessian (upper triangle,
+     * row-major) in the parameters theta = (b, log shape):
+     * acc = [l, g_0 .. g_p, H_00 .. H_pp]
+     */
+    private static double[] accumulate(double[] design, int p, double[] data,
+            boolean[] censored, double[] theta) {
+
+        int m = p + 1;
+        double s = theta[p];
+        double k = Math.exp(s);
+
+        double[] acc = Parallel.sum(data.length, 1 + m + m * m, (from, to, sums) -> {
+
+            int hs = 1 + m;     // Hessian offset
+
+            for (int i = from; i < to; i++) {
+
+                int row = i * p;
+                double eta = 0.0;
+                for (int j = 0; j < p; j++) {
+                    eta += design[row + j] * theta[j];
+                }
+
+                double y = Math.log(data[i]);
+                double z = k * (y - eta);
+                double e = Math.exp(z);
+                double d = censored[i] ? 0.0 : 1.0;
+
+                sums[0] += d * (s + z - y) - e;
+
+                double gb = k * (e - d);
+                double hbb = -k * k * e;
+                double hbs = k * (e - d + e * z);
+
+                for (int j = 0; j < p; j++) {
+                    double xj = design[row + j];
+                    sums[1 + j] += gb * xj;
+                    int base = hs + j * m;
+                    double hx = hbb * xj;
+                    for (int l = j; l < p; l++) {
+                        sums[base + l] += hx * design[row + l];
+                    }
+                    sums[base + p] += hbs * xj;
+                }
+
+                sums[1 + p] += d + z * (d - e);
+                sums[hs + p * m + p] += z * (d - e) - e * z * z;
+
+            }
+
+        });
+
+        // mirror the upper triangle
+        for (int j = 0; j < m; j++) {
+            for (int l = 0; l < j; l++) {
+                acc[1 + m + j * m + l] = acc[1 + m + l * m + j];
+            }
+        }
+
+        if (Double.isNaN(acc[0])) {
+            acc[0] = Double.NEGATIVE_INFINITY;
+        }
+
+        return acc;
+
+    }
+
+    /*
+     * Solve the symmetric positive definite system a x = b by Cholesky
+     * factorization; a is read from its upper triangle (row-major, size q)
+     * and b is read from rhs at offset. Return false if a is not positive
+     * definite.
+     */
+    private static boolean solve(double[] rhs, double[] a, int q, int offset, double[] x) {
+
+        double[] l = new double[q * q];
+
+        for (int j = 0; j < q; j++) {
+            double sum = a[j * q + j];
+            for (int k = 0; k < j; k++) {
+                sum -= l[j * q + k] * l[j * q + k];
+            }
+            if (!(sum > 0.0)) {
+                return false;
+            }
+            double ljj = Math.sqrt(sum);
+            l[j * q + j] = ljj;
+            for (int i = j + 1; i < q; i++) {
+                double v = a[j * q + i];
+                for (int k = 0; k < j; k++) {
+                    v -= l[i * q + k] * l[j * q + k];
+                }
+                l[i * q + j] = v / ljj;
+            }
+        }
+
+        // forward and backward substitution
+        for (int i = 0; i < q; i++) {
+            double v = rhs[offset + i];
+            for (int k = 0; k < i; k++) {
+                v -= l[i * q + k] * x[k];
+            }
+            x[i] = v / l[i * q + i];
+        }
+        for (int i = q - 1; i >= 0; i--) {
+            double v = x[i];
+            for (int k = i + 1; k < q; k++) {
+                v -= l[k * q + i] * x[k];
+            }
+            x[i] = v / l[i * q + i];
+        }
+
+        return true;
+
+    }
+
+}
@@ -0,0 +1,174 @@
+package reliability.unit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import reliability.CompetingRisksDistribution;
+import reliability.DistributionCodec;
+import reliability.ReliabilityDistribution;
+import reliability.WeibullDistribution;
+import reliability.WeibullMixtureDistribution;
+
+public class DistributionCodecUT {
+
+	@Test
+	public void testBytes() {
+
+		byte[] bytes = DistributionCodec.toBytes(new WeibullDistribution(5.0, 15.0));
+		WeibullDistribution dist = (WeibullDistribution) DistributionCodec.fromBytes(bytes);
+
+		assertEquals(18, bytes.length);
+		assertEquals(5.0, dist.getShape(), 0.0);
+		assertEquals(15.0, dist.getScale(), 0.0);
+
+		boolean thrown = false;
+		try {
+			bytes[0] = 99;
+			DistributionCodec.fromBytes(bytes);
+		} catch (IllegalArgumentException ex) {
+			thrown = true;
+		}
+
+		assertTrue(thrown);
+
+	}
+
+	@Test
+	public void testStream() throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DistributionCodec.write(new WeibullDistribution(4.0, 367.0), new DataOutputStream(bytes));
+
+		WeibullDistribution dist = (WeibullDistribution) DistributionCodec.read(
+				new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertEquals(4.0, dist.getShape(), 0.0);
+		assertEquals(367.0, dist.getScale(), 0.0);
+
+	}
+
+	@Test(expected = EOFException.class)
+	public void testStreamTruncated() throws IOException {
+
+		// a mixture record claiming 80000000 components, without any
+		byte bytes[] = { DistributionCodec.VERSION, DistributionCodec.WEIBULL_MIXTURE, 4, -60, -76, 0 };
+
+		DistributionCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+
+	}
+
+	@Test
+	public void testMixtures() throws IOException {
+
+		WeibullDistribution[] components = {
+			new WeibullDistribution(0.8, 5.0), new WeibullDistribution(4.0, 100.0) };
+
+		byte[] bytes = DistributionCodec.toBytes(
+				new WeibullMixtureDistribution(new double[] { 0.25, 0.75 }, components));
+		WeibullMixtureDistribution mixture = (WeibullMixtureDistribution) DistributionCodec.fromBytes(bytes);
+
+		assertEquals(2 + 4 + 6 * 8, bytes.length);
+		assertEquals(0.25, mixture.getWeights()[0], 0.0);
+		assertEquals(4.0, mixture.getComponents()[1].getShape(), 0.0);
+		assertEquals(100.0, mixture.getComponents()[1].getScale(), 0.0);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DistributionCodec.write(new CompetingRisksDistribution(components), new DataOutputStream(out));
+
+		CompetingRisksDistribution risks = (CompetingRisksDistribution) DistributionCodec.read(
+				new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+		assertEquals(2, risks.getComponents().length);
+		assertEquals(0.8, risks.getComponents()[0].getShape(), 0.0);
+		assertEquals(5.0, risks.getComponents()[0].getScale(), 0.0);
+
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+
+		List<WeibullDistribution> dists = new ArrayList<>();
+		for (int i = 1; i <= 1000; i++)
+			dists.add(new WeibullDistribution(i / 100.0, i));
+
+		Path file = Files.createTempFile("reliability", ".snapshot");
+		file.toFile().deleteOnExit();
+
+		DistributionCodec.writeSnapshot(file, dists);
+		List<ReliabilityDistribution> read = DistributionCodec.readSnapshot(file);
+
+		assertEquals(dists.size(), read.size());
+		for (int i = 0; i < dists.size(); i++) {
+			WeibullDistribution dist = (WeibullDistribution) read.get(i);
+			assertEquals(dists.get(i).getShape(), dist.getShape(), 0.0);
+			assertEquals(dists.get(i).getScale(), dist.getScale(), 0.0);
+		}
+
+	}
+
+	@Test
+	public void testInvalidRecords() throws IOException {
+
+		// NaN shape
+		byte bytes[] = DistributionCodec.toBytes(new WeibullDistribution(2.0, 10.0));
+		ByteBuffer.wrap(bytes).putDouble(2, Double.NaN);
+
+		boolean thrown = false;
+		try {
+			DistributionCodec.fromBytes(bytes);
+		} catch (IllegalArgumentException ex) {
+			thrown = true;
+		}
+
+		assertTrue(thrown);
+
+		// one record claiming 5 components, holding 1
+		ByteBuffer snapshot = ByteBuffer.allocate(12 + 1 + 4 + 16).order(ByteOrder.LITTLE_ENDIAN);
+		snapshot.putInt(0x52454c44).putInt(DistributionCodec.VERSION).putInt(1);
+		snapshot.put(DistributionCodec.COMPETING_RISKS).putInt(5).putDouble(2.0).putDouble(10.0);
+
+		Path file = Files.createTempFile("reliability", ".snapshot");
+		file.toFile().deleteOnExit();
+		Files.write(file, snapshot.array());
+
+		thrown = false;
+		try {
+			DistributionCodec.readSnapshot(file);
+		} catch (IOException ex) {
+			thrown = true;
+		}
+
+		assertTrue(thrown);
+
+	}
+
+	@Test(expected = IOException.class)
+	public void testSnapshotCorrupted() throws IOException {
+
+		// header only, claiming Integer.MAX_VALUE records
+		ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(0x52454c44).putInt(DistributionCodec.VERSION).putInt(Integer.MAX_VALUE);
+
+		Path file = Files.createTempFile("reliability", ".snapshot");
+		file.toFile().deleteOnExit();
+		Files.write(file, header.array());
+
+		DistributionCodec.readSnapshot(file);
+
+	}
+
+}
@@ -0,0 +1,63 @@
+package reliability.unit;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import reliability.FitStatistics;
+import reliability.LatencyHistogram;
+import reliability.ReliabilityDistribution;
+import reliability.WeibullDistribution;
+
+public class FitStatisticsUT {
+
+	@Test
+	public void testLatencyHistogram() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		for (long i = 1; i <= 1000; i++)
+			histogram.record(i * 1000);
+
+		assertEquals(1000, histogram.getCount());
+		assertEquals(500500.0, histogram.getMean(), 0.0);
+
+		if (Math.abs(histogram.getPercentile(50.0) - 500000.0) / 500000.0 >= 1.0 / 32.0)
+			fail("Percentile non exact!");
+
+		if (Math.abs(histogram.getMax() - 1000000.0) / 1000000.0 >= 1.0 / 32.0)
+			fail("Maximum non exact!");
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0.0, histogram.getMean(), 0.0);
+
+	}
+
+	@Test
+	public void testFitListener() {
+
+		FitStatistics statistics = new FitStatistics();
+		ReliabilityDistribution.setFitListener(statistics);
+
+		try {
+			WeibullDistribution.estimate(new double[] { 1.0, 2.0, 3.0, 4.0 });
+			WeibullDistribution.estimate(new double[] { 1.0, 2.0 },
+					new boolean[] { true, true });
+		} catch (ArithmeticException ex) {
+		} finally {
+			ReliabilityDistribution.setFitListener(null);
+		}
+
+		assertEquals(2, statistics.getFitCount());
+		assertEquals(1, statistics.getFailureCount());
+		assertEquals(Long.valueOf(1), statistics.getFailureReasons().get(
+				"Number of uncensored data must be greater than 0!"));
+		assertTrue(statistics.getMeanIterations() > 0.0);
+
+		new WeibullDistribution(2.0, 3.0).cdf(new double[] { 1.0, 2.0 });
+		assertEquals(0, statistics.getEvaluatedPoints());
+
+	}
+
+}
@@ -0,0 +1,65 @@
+package reliability.unit;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import reliability.GoodnessOfFitTest;
+import reliability.GoodnessOfFitTest.Statistic;
+import reliability.WeibullDistribution;
+
+public class GoodnessOfFitTestUT {
+
+	private static final double[] DATA = { 11.2, 7.5, 14.1, 9.8, 12.6, 16.3,
+			10.4, 13.3, 8.9, 15.0 };
+
+	@Test
+	public void testCompleteData() {
+
+		WeibullDistribution dist = new WeibullDistribution(5.0, 13.0);
+		GoodnessOfFitTest test = new GoodnessOfFitTest(DATA, new boolean[DATA.length]);
+
+		double[] x = DATA.clone();
+		Arrays.sort(x);
+		double[] u = dist.cdf(x);
+		int n = x.length;
+
+		double ad = -n;
+		double cvm = 1.0 / (12.0 * n);
+		double ks = 0.0;
+		for (int i = 0; i < n; i++) {
+			ad -= (2.0 * i + 1.0) * (Math.log(u[i]) + Math.log(1.0 - u[n - 1 - i])) / n;
+			cvm += Math.pow(u[i] - (2.0 * i + 1.0) / (2.0 * n), 2.0);
+			ks = Math.max(ks, Math.max((i + 1.0) / n - u[i], u[i] - (double) i / n));
+		}
+
+		assertEquals(ad, test.andersonDarling(dist), 1e-9);
+		assertEquals(cvm, test.cramerVonMises(dist), 1e-9);
+		assertEquals(ks, test.kolmogorovSmirnov(dist), 1e-12);
+
+	}
+
+	@Test
+	public void testCensoredData() {
+
+		boolean[] censored = new boolean[DATA.length];
+		censored[2] = true;
+		censored[5] = true;
+
+		GoodnessOfFitTest test = new GoodnessOfFitTest(DATA, censored);
+		WeibullDistribution dist = new WeibullDistribution(5.0, 13.0);
+
+		for (Statistic statistic : Statistic.values()) {
+			double val = test.statistic(statistic, dist);
+			assertTrue(Double.isFinite(val) && val >= 0.0);
+		}
+
+		double p = test.pValue(Statistic.ANDERSON_DARLING, 99, 42L);
+		assertTrue(p > 0.0 && p <= 1.0);
+		assertEquals(p, test.pValue(Statistic.ANDERSON_DARLING, 99, 42L), 0.0);
+
+	}
+
+}
@@ -2,9 +2,17 @@ package reliability.unit;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.junit.Test;
 
+import reliability.ReliabilityDistribution;
 import reliability.WeibullDistribution;
+import reliability.WeibullPlot;
 
 public class WeibullDistributionUT {
 
@@ -183,4 +191,212 @@ public class WeibullDistributionUT {
 
 	}
 
+	@Test
+	public void testEstimateCensored() {
+
+		double data[] = { 12, 25, 31, 44, 58, 60, 60 };
+		boolean censored[] = { false, false, false, false, false, true, true };
+
+		WeibullDistribution dist = (WeibullDistribution) WeibullDistribution
+				.estimate(data, censored);
+
+		if (Math.abs(dist.getShape() - 1.862992048818706) >= 1e-6)
+			fail("Value non exact!");
+
+		if (Math.abs(dist.getScale() - 53.49609791443642) >= 1e-4)
+			fail("Value non exact!");
+
+	}
+
+	@Test
+	public void testEstimateSmallShape() {
+
+		// the first Newton step from shape 1.0 overshoots below 0.0
+		double data[] = { 88.02, 2.253, 10.6, 6.92, 5.03, 24.22, 0.00063, 70.88, 4.48, 206.5 };
+		boolean censored[] = { false, false, false, true, false, false, false, false, true, true };
+
+		WeibullDistribution dist = (WeibullDistribution) WeibullDistribution.estimate(data,
+				censored, 100, 1e-8);
+
+		assertEquals(0.417063, dist.getShape(), 1e-5);
+		assertEquals(49.3752, dist.getScale(), 1e-3);
+
+	}
+
+	@Test
+	public void testEstimateRankRegression() {
+
+		double data[] = { 16, 34, 53, 75, 93, 120 };
+
+		WeibullDistribution dist = (WeibullDistribution) WeibullDistribution
+				.estimateRankRegression(data);
+
+		if (Math.abs(dist.getShape() - 1.426967) >= 1e-5)
+			fail("Value non exact!");
+
+		if (Math.abs(dist.getScale() - 76.345415) >= 1e-4)
+			fail("Value non exact!");
+
+	}
+
+	@Test
+	public void testProbabilityPlotCensored() {
+
+		double data[] = { 5100, 9500, 15000, 22000, 40000 };
+		boolean censored[] = { false, true, false, true, false };
+
+		WeibullPlot plot = WeibullDistribution.probabilityPlot(data, censored);
+		double rank[] = plot.getMedianRank();
+
+		assertEquals(3, rank.length);
+		assertEquals((1.0 - 0.3) / 5.4, rank[0], 1e-9);
+		assertEquals((2.25 - 0.3) / 5.4, rank[1], 1e-9);
+		assertEquals((4.125 - 0.3) / 5.4, rank[2], 1e-9);
+
+		WeibullDistribution dist = (WeibullDistribution) WeibullDistribution
+				.estimate(data, censored, plot.getDistribution().getShape(), 100, 1e-6);
+		WeibullDistribution mle = (WeibullDistribution) WeibullDistribution
+				.estimate(data, censored);
+
+		assertEquals(mle.getShape(), dist.getShape(), 1e-5);
+
+	}
+
+	@Test
+	public void testEstimateIntervalExactAndRight() {
+
+		double lower[] = { 12, 25, 31, 44, 58, 60, 60 };
+		double upper[] = { 12, 25, 31, 44, 58, Double.POSITIVE_INFINITY,
+				Double.POSITIVE_INFINITY };
+
+		WeibullDistribution dist = (WeibullDistribution) WeibullDistribution
+				.estimateInterval(lower, upper);
+
+		if (Math.abs(dist.getShape() - 1.862992048818706) >= 1e-6)
+			fail("Value non exact!");
+
+		if (Math.abs(dist.getScale() - 53.49609791443642) >= 1e-4)
+			fail("Value non exact!");
+
+	}
+
+	@Test
+	public void testEstimateIntervalInspections() {
+
+		java.util.Random generator = new java.util.Random(11);
+		WeibullDistribution model = new WeibullDistribution(2.5, 100.0);
+
+		int n = 20000;
+		double lower[] = new double[n];
+		double upper[] = new double[n];
+
+		// inspections every 20 hours up to 160 hours
+		for (int i = 0; i < n; i++) {
+			double t = model.random(generator);
+			double k = Math.floor(t / 20.0);
+			if (t > 160.0) {
+				lower[i] = 160.0;
+				upper[i] = Double.POSITIVE_INFINITY;
+			} else {
+				lower[i] = 20.0 * k;
+				upper[i] = 20.0 * (k + 1.0);
+			}
+		}
+
+		WeibullDistribution dist = (WeibullDistribution) WeibullDistribution
+				.estimateInterval(lower, upper);
+
+		assertEquals(2.5, dist.getShape(), 0.1);
+		assertEquals(100.0, dist.getScale(), 2.0);
+
+	}
+
+	@Test
+	public void testMeanResidualLife() {
+
+		// exponential: memoryless
+		WeibullDistribution exp = new WeibullDistribution(1.0, 100.0);
+		assertEquals(100.0, exp.meanResidualLife(0.0), 1e-10);
+		assertEquals(100.0, exp.meanResidualLife(250.0), 1e-10);
+		assertEquals(100.0 * Math.log(2.0), exp.residualLife(250.0, 0.5), 1e-10);
+
+		// at age 0.0 the mean residual life is the mean scale * Gamma(1.5)
+		WeibullDistribution dist = new WeibullDistribution(2.0, 100.0);
+		assertEquals(50.0 * Math.sqrt(Math.PI), dist.meanResidualLife(0.0), 1e-10);
+
+		// the quadrature of the base class agrees with the closed form
+		ReliabilityDistribution generic = new ReliabilityDistribution() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public double pdf(double x) {
+				return dist.pdf(x);
+			}
+
+			@Override
+			public double cdf(double x) {
+				return dist.cdf(x);
+			}
+
+			@Override
+			public double random() {
+				return dist.random();
+			}
+
+		};
+
+		double X[] = { 0.0, 10.0, 80.0, 150.0, 200.0 };
+		double mrl[] = new double[X.length];
+		double rl[] = new double[X.length];
+		dist.meanResidualLife(X, mrl);
+		dist.residualLife(X, 0.9, rl);
+
+		for (int i = 0; i < X.length; i++) {
+			assertEquals(mrl[i], generic.meanResidualLife(X[i]), 1e-8 * mrl[i]);
+			assertEquals(rl[i], generic.residualLife(X[i], 0.9), 1e-8 * rl[i]);
+			assertEquals(0.9, dist.conditionalReliability(rl[i], X[i]), 1e-12);
+		}
+
+		// beyond the table 1 - cdf rounds to 0.0: NaN, not a wrong value
+		assertTrue(Double.isNaN(generic.meanResidualLife(1000.0)));
+		assertEquals(4.975, dist.meanResidualLife(1000.0), 1e-3);
+
+	}
+
+	@Test
+	public void testMoments() throws IOException, ClassNotFoundException {
+
+		WeibullDistribution dist = new WeibullDistribution(2.0, 100.0);
+
+		assertEquals(50.0 * Math.sqrt(Math.PI), dist.mean(), 1e-10);
+		assertEquals(dist.mean(), dist.mttf(), 0.0);
+		assertEquals(10000.0 * (1.0 - Math.PI / 4.0), dist.variance(), 1e-8);
+
+		// the derived constants are rebuilt on deserialization
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new ObjectOutputStream(bytes).writeObject(dist);
+		WeibullDistribution copy = (WeibullDistribution) new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		assertEquals(dist.pdf(80.0), copy.pdf(80.0), 0.0);
+		assertEquals(dist.hazard(80.0), copy.hazard(80.0), 0.0);
+		assertEquals(dist.mean(), copy.mean(), 0.0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testResidualLifeBuffer() {
+
+		new WeibullDistribution(2.0, 100.0).residualLife(new double[3], 0.5, new double[2]);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testResidualLifeNegativeAge() {
+
+		new WeibullDistribution(2.0, 100.0).residualLife(-5.0, 0.5);
+
+	}
+
 }
@@ -0,0 +1,89 @@
+package reliability.unit;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import reliability.CompetingRisksDistribution;
+import reliability.WeibullDistribution;
+import reliability.WeibullMixtureDistribution;
+
+public class WeibullMixtureDistributionUT {
+
+	@Test
+	public void testMixture() {
+
+		WeibullMixtureDistribution dist = new WeibullMixtureDistribution(new double[] { 1.0, 3.0 },
+				new WeibullDistribution[] { new WeibullDistribution(1.0, 10.0), new WeibullDistribution(2.0, 20.0) });
+
+		double x = 15.0;
+		double expected = 0.25 * Math.exp(-1.5) + 0.75 * Math.exp(-0.5625);
+
+		assertEquals(0.25, dist.getWeights()[0], 1e-15);
+		assertEquals(expected, dist.reliability(x), 1e-12);
+		assertEquals(1.0 - expected, dist.cdf(x), 1e-12);
+		assertEquals(0.25 * 10.0 + 0.75 * 10.0 * Math.sqrt(Math.PI), dist.mean(), 1e-12);
+
+	}
+
+	@Test
+	public void testEstimateMixture() {
+
+		WeibullMixtureDistribution truth = new WeibullMixtureDistribution(new double[] { 0.3, 0.7 },
+				new WeibullDistribution[] { new WeibullDistribution(0.8, 5.0), new WeibullDistribution(4.0, 100.0) });
+
+		Random generator = new Random(7);
+		int n = 20000;
+		double[] data = new double[n];
+		boolean[] censored = new boolean[n];
+		for (int i = 0; i < n; i++) {
+			data[i] = Math.min(truth.random(generator), 150.0);
+			censored[i] = data[i] == 150.0;
+		}
+
+		WeibullMixtureDistribution dist = WeibullMixtureDistribution.estimate(data, censored, 2);
+		WeibullDistribution[] components = dist.getComponents();
+
+		assertEquals(0.3, dist.getWeights()[0], 0.02);
+		assertEquals(0.8, components[0].getShape(), 0.05);
+		assertEquals(5.0, components[0].getScale(), 0.5);
+		assertEquals(4.0, components[1].getShape(), 0.2);
+		assertEquals(100.0, components[1].getScale(), 2.0);
+
+	}
+
+	@Test
+	public void testEstimateCompetingRisks() {
+
+		CompetingRisksDistribution truth = new CompetingRisksDistribution(new WeibullDistribution[] {
+			new WeibullDistribution(0.6, 400.0), new WeibullDistribution(4.0, 100.0) });
+
+		Random generator = new Random(11);
+		int n = 20000;
+		double[] data = new double[n];
+		boolean[] censored = new boolean[n];
+		for (int i = 0; i < n; i++) {
+			data[i] = truth.random(generator);
+		}
+
+		WeibullDistribution[] components = CompetingRisksDistribution.estimate(data, censored, 2)
+				.getComponents();
+
+		assertEquals(4.0, components[0].getShape(), 0.2);
+		assertEquals(100.0, components[0].getScale(), 3.0);
+		assertEquals(0.6, components[1].getShape(), 0.05);
+		assertEquals(400.0, components[1].getScale(), 60.0);
+
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testEstimateTooFewFailures() {
+
+		WeibullMixtureDistribution.estimate(new double[] { 1.0, 2.0, 3.0 },
+				new boolean[] { false, true, true }, 2);
+
+	}
+
+}
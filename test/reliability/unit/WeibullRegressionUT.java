@@ -0,0 +1,66 @@
+package reliability.unit;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import reliability.WeibullDistribution;
+import reliability.WeibullRegression;
+
+public class WeibullRegressionUT {
+
+	@Test
+	public void testInterceptOnly() {
+
+		double data[] = { 12, 25, 31, 44, 58, 60, 60 };
+		boolean censored[] = { false, false, false, false, false, true, true };
+		double design[] = new double[data.length];
+		Arrays.fill(design, 1.0);
+
+		WeibullRegression model = WeibullRegression.estimate(design, 1, data, censored);
+		WeibullDistribution dist = (WeibullDistribution) WeibullDistribution
+				.estimate(data, censored);
+
+		assertEquals(dist.getShape(), model.getShape(), 1e-6);
+		assertEquals(dist.getScale(), model.scale(new double[] { 1.0 }), 1e-4);
+
+	}
+
+	@Test
+	public void testCovariates() {
+
+		Random generator = new Random(7);
+		int n = 20000;
+		double[] beta = { 3.0, 0.5, -0.25 };
+		double[] design = new double[n * 3];
+		double[] data = new double[n];
+		boolean[] censored = new boolean[n];
+
+		for (int i = 0; i < n; i++) {
+			design[3 * i] = 1.0;
+			design[3 * i + 1] = generator.nextGaussian();
+			design[3 * i + 2] = generator.nextDouble();
+			double scale = Math.exp(beta[0] + beta[1] * design[3 * i + 1]
+					+ beta[2] * design[3 * i + 2]);
+			data[i] = new WeibullDistribution(2.0, scale).random(generator);
+			if (data[i] > 40.0) {
+				data[i] = 40.0;
+				censored[i] = true;
+			}
+		}
+
+		WeibullRegression model = WeibullRegression.estimate(design, 3, data, censored);
+
+		assertEquals(2.0, model.getShape(), 0.05);
+		for (int j = 0; j < beta.length; j++)
+			assertEquals(beta[j], model.getCoefficients()[j], 0.05);
+
+		WeibullDistribution dist = model.distribution(new double[] { 1.0, 0.0, 0.0 });
+		assertEquals(Math.exp(model.getCoefficients()[0]), dist.getScale(), 1e-12);
+
+	}
+
+}